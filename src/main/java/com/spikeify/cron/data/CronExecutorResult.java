@@ -2,6 +2,8 @@ package com.spikeify.cron.data;
 
 import com.spikeify.cron.entities.enums.CronJobResult;
 
+import java.net.HttpURLConnection;
+
 /**
  * Class holding info about last cron job execution
  */
@@ -41,4 +43,12 @@ public class CronExecutorResult {
 	public static CronExecutorResult fail(int status, String message) {
 		return new CronExecutorResult(CronJobResult.fail, status, message);
 	}
+
+	public static CronExecutorResult unavailable(String message) {
+		return new CronExecutorResult(CronJobResult.unavailable, HttpURLConnection.HTTP_UNAVAILABLE, message);
+	}
+
+	public static CronExecutorResult timeout(String message) {
+		return new CronExecutorResult(CronJobResult.timeout, HttpURLConnection.HTTP_GATEWAY_TIMEOUT, message);
+	}
 }
@@ -2,7 +2,11 @@ package com.spikeify.cron.data;
 
 import com.spikeify.cron.data.json.CronJobJSON;
 import com.spikeify.cron.entities.CronJob;
+import com.spikeify.cron.entities.enums.MisfirePolicy;
 import com.spikeify.cron.utils.Assert;
+import com.spikeify.cron.utils.DateTimeUtils;
+
+import java.time.ZoneId;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -25,22 +29,46 @@ public class CronJsonUpdater implements CronJobUpdater {
 		List<CronJobUpdater> updaters = new ArrayList<>();
 
 		updaters.add(new FirstRunUpdater(data.firstRun));
+		updaters.add(new TimeoutUpdater(data.connectTimeout, data.readTimeout));
+
+		// retry policy
+		if (data.maxRetries != null && data.maxRetries > 0) {
+
+			long delay = data.retryDelay != null ? data.retryDelay : RetryUpdater.DEFAULT_DELAY;
+			long maxDelay = data.retryMaxDelay != null ? data.retryMaxDelay : Math.max(delay, RetryUpdater.DEFAULT_MAX_DELAY);
+			updaters.add(new RetryUpdater(data.maxRetries, delay, maxDelay));
+		}
+		else if (job.getMaxRetries() > 0) {
+			updaters.add(new RetryUpdater(0, 0, 0));
+		}
 
 		if (data.target != null && data.target.trim().length() > 0) {
 
-			if (data.intervalUnits != null &&
+			// wall clock of given time zone or fixed offset
+			ZoneId zone = data.zone != null ? DateTimeUtils.getZoneId(data.zone) : null;
+
+			if (data.cron != null && data.cron.trim().length() > 0) {
+
+				// cron expression
+				updaters.add(zone != null ? new ScheduleUpdater(data.target, data.cron, zone) : new ScheduleUpdater(data.target, data.cron));
+			}
+			else if (data.intervalUnits != null &&
 				data.interval > 0 &&
 				data.startHour != null && data.startMinute != null &&
 				data.endHour != null && data.endMinute != null) {
 
 				// repeat only in range of hours
-				updaters.add(new ScheduleUpdater(data.target, data.interval, data.intervalUnits, data.startHour, data.startMinute, data.endHour, data.endMinute, timeZone));
+				updaters.add(zone != null ?
+					             new ScheduleUpdater(data.target, data.interval, data.intervalUnits, data.startHour, data.startMinute, data.endHour, data.endMinute, zone) :
+					             new ScheduleUpdater(data.target, data.interval, data.intervalUnits, data.startHour, data.startMinute, data.endHour, data.endMinute, timeZone));
 			}
 			else if (data.startHour != null && data.startMinute != null &&
 					 data.endHour == null && data.endMinute == null) {
 
 				// once a day at certain hour
-				updaters.add(new ScheduleUpdater(data.target, data.startHour, data.startMinute, timeZone));
+				updaters.add(zone != null ?
+					             new ScheduleUpdater(data.target, data.startHour, data.startMinute, zone) :
+					             new ScheduleUpdater(data.target, data.startHour, data.startMinute, timeZone));
 			}
 			else if (data.intervalUnits != null &&
 					 data.interval > 0) {
@@ -50,6 +78,29 @@ public class CronJsonUpdater implements CronJobUpdater {
 			}
 		}
 
+		// spread out in window
+		long spread = data.spread != null ? data.spread : 0;
+		if (job.getSpread() != spread) {
+			updaters.add(new SpreadUpdater(spread));
+		}
+
+		// missed runs policy
+		if (job.getMisfirePolicy() != (data.misfire != null ? data.misfire : MisfirePolicy.fireOnce)) {
+			updaters.add(new MisfireUpdater(data.misfire));
+		}
+
+		// history retention
+		int historySize = data.historySize != null ? data.historySize : CronJob.DEFAULT_HISTORY_SIZE;
+		if (job.getHistorySize() != historySize) {
+			updaters.add(new HistoryUpdater(data.historySize));
+		}
+
+		// priority
+		int priority = data.priority != null ? data.priority : 0;
+		if (job.getPriority() != priority) {
+			updaters.add(new PriorityUpdater(data.priority));
+		}
+
 		// enable / disable
 		if (job.isDisabled() != data.disabled) {
 			updaters.add(new EnableDisableUpdater(!data.disabled));
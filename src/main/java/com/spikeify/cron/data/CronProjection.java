@@ -0,0 +1,143 @@
+package com.spikeify.cron.data;
+
+import com.spikeify.cron.utils.Assert;
+
+/**
+ * Histogram of projected job runs, number of runs in each time bucket
+ */
+public class CronProjection {
+
+	/**
+	 * max number of buckets (one year in minutes)
+	 */
+	public static final int MAX_BUCKETS = 366 * 24 * 60;
+
+	private final long from;
+	private final long to;
+	private final long bucketSize;
+
+	private final int[] counts;
+
+	/**
+	 * @param fromTime     start of projection (including)
+	 * @param toTime       end of projection (excluding)
+	 * @param bucketMillis size of bucket in milliseconds
+	 */
+	public CronProjection(long fromTime, long toTime, long bucketMillis) {
+
+		Assert.isTrue(fromTime < toTime, "From time must be before to time!");
+		Assert.isTrue(bucketMillis > 0, "Bucket size must be > 0, but was: " + bucketMillis + "!");
+
+		long buckets = (toTime - fromTime + bucketMillis - 1) / bucketMillis;
+		Assert.isTrue(buckets <= MAX_BUCKETS, "Too many buckets: " + buckets + ", max: " + MAX_BUCKETS + "!");
+
+		from = fromTime;
+		to = toTime;
+		bucketSize = bucketMillis;
+		counts = new int[(int) buckets];
+	}
+
+	/**
+	 * Adds run to bucket, runs outside of projection are ignored
+	 *
+	 * @param time of run
+	 */
+	public void add(long time) {
+
+		if (time >= from && time < to) {
+			counts[(int) ((time - from) / bucketSize)]++;
+		}
+	}
+
+	/**
+	 * Adds runs of other projection over same time buckets
+	 *
+	 * @param other projection
+	 */
+	public void merge(CronProjection other) {
+
+		Assert.notNull(other, "Missing projection!");
+		Assert.isTrue(from == other.from && to == other.to && bucketSize == other.bucketSize, "Can't merge projections with different buckets!");
+
+		for (int i = 0; i < counts.length; i++) {
+			counts[i] += other.counts[i];
+		}
+	}
+
+	public long getFrom() {
+
+		return from;
+	}
+
+	public long getTo() {
+
+		return to;
+	}
+
+	public long getBucketSize() {
+
+		return bucketSize;
+	}
+
+	/**
+	 * @return number of buckets
+	 */
+	public int getBuckets() {
+
+		return counts.length;
+	}
+
+	/**
+	 * @param index of bucket
+	 * @return start time of bucket
+	 */
+	public long getBucketStart(int index) {
+
+		return from + index * bucketSize;
+	}
+
+	/**
+	 * @param index of bucket
+	 * @return number of runs in bucket
+	 */
+	public int getCount(int index) {
+
+		return counts[index];
+	}
+
+	/**
+	 * @return number of runs in each bucket (copy)
+	 */
+	public int[] getCounts() {
+
+		return counts.clone();
+	}
+
+	/**
+	 * @return number of all runs
+	 */
+	public long getTotal() {
+
+		long total = 0;
+		for (int count : counts) {
+			total += count;
+		}
+
+		return total;
+	}
+
+	/**
+	 * @return index of bucket with most runs (first one if more buckets have the same number of runs)
+	 */
+	public int getPeak() {
+
+		int peak = 0;
+		for (int i = 1; i < counts.length; i++) {
+			if (counts[i] > counts[peak]) {
+				peak = i;
+			}
+		}
+
+		return peak;
+	}
+}
@@ -0,0 +1,25 @@
+package com.spikeify.cron.data;
+
+import com.spikeify.cron.entities.CronJob;
+
+/**
+ * Locks job only if it is still due and not locked, for jobs locked from a copy read ahead of their next run (copy might be stale)
+ */
+public class DueLockCronUpdater extends LockCronUpdater {
+
+	/**
+	 * @param startTime  lock time
+	 * @param runTimeout time in milliseconds run may take, job stays locked at least this long (null - default)
+	 */
+	public DueLockCronUpdater(long startTime, Long runTimeout) {
+		super(startTime, runTimeout);
+	}
+
+	@Override
+	public void update(CronJob job) {
+
+		if (job.run()) {
+			super.update(job);
+		}
+	}
+}
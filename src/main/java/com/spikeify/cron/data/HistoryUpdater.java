@@ -0,0 +1,21 @@
+package com.spikeify.cron.data;
+
+import com.spikeify.cron.entities.CronJob;
+
+public class HistoryUpdater implements CronJobUpdater {
+
+	private final Integer historySize;
+
+	/**
+	 * @param size number of runs kept in job history, null - default, 0 - don't keep history
+	 */
+	public HistoryUpdater(Integer size) {
+
+		historySize = size;
+	}
+
+	public void update(CronJob job) {
+
+		job.setHistorySize(historySize);
+	}
+}
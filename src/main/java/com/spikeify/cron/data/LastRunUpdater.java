@@ -9,15 +9,46 @@ public class LastRunUpdater implements CronJobUpdater {
 	private final CronJobResult runResult;
 	private final String runMessage;
 
+	private final Integer httpStatus;
+	private final long started;
+	private final long duration;
+
 	public LastRunUpdater(long timeMillis, CronJobResult result, String message) {
 
 		runTime = timeMillis;
 		runResult = result;
 		runMessage = message;
+
+		httpStatus = null;
+		started = 0;
+		duration = 0;
+	}
+
+	/**
+	 * Sets last run and adds run to job history (in same update)
+	 *
+	 * @param timeMillis     scheduled time of run
+	 * @param result         of execution
+	 * @param startedMillis  time execution was started
+	 * @param durationMillis time execution took
+	 */
+	public LastRunUpdater(long timeMillis, CronExecutorResult result, long startedMillis, long durationMillis) {
+
+		runTime = timeMillis;
+		runResult = result.getJobResult();
+		runMessage = result.getMessage();
+
+		httpStatus = result.getHttpStatus();
+		started = startedMillis;
+		duration = durationMillis;
 	}
 
 	public void update(CronJob job) {
 
 		job.setLastRun(runTime, runResult, runMessage);
+
+		if (httpStatus != null) {
+			job.addHistory(started, duration, runResult, httpStatus);
+		}
 	}
 }
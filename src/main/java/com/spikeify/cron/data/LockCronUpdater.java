@@ -3,22 +3,33 @@ package com.spikeify.cron.data;
 import com.spikeify.cron.entities.CronJob;
 
 /**
- *
+ * Locks job unless it is already locked (see {@link DueLockCronUpdater} to lock only jobs that are still due)
  */
 public class LockCronUpdater implements CronJobUpdater {
 
 	private final long time;
 
+	private final Long timeout;
+
 	public LockCronUpdater(long startTime) {
+		this(startTime, null);
+	}
+
+	/**
+	 * @param startTime     lock time
+	 * @param runTimeout    time in milliseconds run may take, job stays locked at least this long (null - default)
+	 */
+	public LockCronUpdater(long startTime, Long runTimeout) {
 		super();
 		time = startTime;
+		timeout = runTimeout;
 	}
 
 	@Override
 	public void update(CronJob job) {
 
 		if (!job.isLocked()) {
-			job.setStarted(time);
+			job.setStarted(time, timeout);
 		}
 	}
 }
@@ -0,0 +1,22 @@
+package com.spikeify.cron.data;
+
+import com.spikeify.cron.entities.CronJob;
+import com.spikeify.cron.entities.enums.MisfirePolicy;
+
+public class MisfireUpdater implements CronJobUpdater {
+
+	private final MisfirePolicy policy;
+
+	/**
+	 * @param misfirePolicy what to do with missed runs, null - fire once
+	 */
+	public MisfireUpdater(MisfirePolicy misfirePolicy) {
+
+		policy = misfirePolicy;
+	}
+
+	public void update(CronJob job) {
+
+		job.setMisfirePolicy(policy);
+	}
+}
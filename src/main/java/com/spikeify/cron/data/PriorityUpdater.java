@@ -0,0 +1,21 @@
+package com.spikeify.cron.data;
+
+import com.spikeify.cron.entities.CronJob;
+
+public class PriorityUpdater implements CronJobUpdater {
+
+	private final Integer priority;
+
+	/**
+	 * @param value higher priority jobs are run first when more jobs are due at once, null - default
+	 */
+	public PriorityUpdater(Integer value) {
+
+		priority = value;
+	}
+
+	public void update(CronJob job) {
+
+		job.setPriority(priority);
+	}
+}
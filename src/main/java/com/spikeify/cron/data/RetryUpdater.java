@@ -0,0 +1,36 @@
+package com.spikeify.cron.data;
+
+import com.spikeify.cron.entities.CronJob;
+
+public class RetryUpdater implements CronJobUpdater {
+
+	public static final long DEFAULT_DELAY = 30L * 1000L; // 30 seconds
+
+	public static final long DEFAULT_MAX_DELAY = 60L * 60L * 1000L; // 1 hour
+
+	private final int maxRetries;
+	private final long delay;
+	private final long maxDelay;
+
+	public RetryUpdater(int retries) {
+
+		this(retries, DEFAULT_DELAY, DEFAULT_MAX_DELAY);
+	}
+
+	/**
+	 * @param retries       number of retries of failed run, 0 to disable
+	 * @param delayMillis   delay before first retry, doubled with each further retry
+	 * @param maxDelayMillis max delay between retries
+	 */
+	public RetryUpdater(int retries, long delayMillis, long maxDelayMillis) {
+
+		maxRetries = retries;
+		delay = delayMillis;
+		maxDelay = maxDelayMillis;
+	}
+
+	public void update(CronJob job) {
+
+		job.setRetry(maxRetries, delay, maxDelay);
+	}
+}
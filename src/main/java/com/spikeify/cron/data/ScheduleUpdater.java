@@ -2,8 +2,11 @@ package com.spikeify.cron.data;
 
 import com.spikeify.cron.entities.CronJob;
 import com.spikeify.cron.entities.enums.RunEvery;
+import com.spikeify.cron.utils.Assert;
 import com.spikeify.cron.utils.DateTimeUtils;
 
+import java.time.ZoneId;
+
 public class ScheduleUpdater implements CronJobUpdater {
 
 	private final String jobTarget;
@@ -18,6 +21,9 @@ public class ScheduleUpdater implements CronJobUpdater {
 	private final Integer runToHour;
 	private final Integer runToMinute;
 
+	private final String cronExpression;
+
+	private final String zoneId;
 
 	public ScheduleUpdater(String target,
 						   int interval,
@@ -34,6 +40,62 @@ public class ScheduleUpdater implements CronJobUpdater {
 		runFromMinute = null;
 		runToHour = null;
 		runToMinute = null;
+
+		cronExpression = null;
+		zoneId = null;
+	}
+
+	/**
+	 * @param target     to call
+	 * @param expression cron expression (UTC)
+	 */
+	public ScheduleUpdater(String target,
+						   String expression) {
+
+		Assert.notNullOrEmptyTrimmed(expression, "Missing cron expression!");
+
+		runFromTo = false;
+		runOnce = false;
+
+		jobTarget = target;
+		runInterval = 0;
+		runIntervalUnit = null;
+
+		runFromHour = null;
+		runFromMinute = null;
+		runToHour = null;
+		runToMinute = null;
+
+		cronExpression = expression;
+		zoneId = null;
+	}
+
+	/**
+	 * @param target     to call
+	 * @param expression cron expression (wall clock time of given zone)
+	 * @param zone       time zone
+	 */
+	public ScheduleUpdater(String target,
+						   String expression,
+						   ZoneId zone) {
+
+		Assert.notNullOrEmptyTrimmed(expression, "Missing cron expression!");
+		Assert.notNull(zone, "Missing time zone!");
+
+		runFromTo = false;
+		runOnce = false;
+
+		jobTarget = target;
+		runInterval = 0;
+		runIntervalUnit = null;
+
+		runFromHour = null;
+		runFromMinute = null;
+		runToHour = null;
+		runToMinute = null;
+
+		cronExpression = expression;
+		zoneId = zone.getId();
 	}
 
 	public ScheduleUpdater(String target,
@@ -57,6 +119,9 @@ public class ScheduleUpdater implements CronJobUpdater {
 		runFromMinute = fromMinute;
 		runToHour = DateTimeUtils.getUtcHour(toHour, timezone);
 		runToMinute = toMinute;
+
+		cronExpression = null;
+		zoneId = null;
 	}
 
 	public ScheduleUpdater(String target,
@@ -78,10 +143,73 @@ public class ScheduleUpdater implements CronJobUpdater {
 		runFromMinute = atMinute;
 		runToHour = null;
 		runToMinute = null;
+
+		cronExpression = null;
+		zoneId = null;
+	}
+
+	/**
+	 * Runs from / to given wall clock time in time zone (daylight saving time aware)
+	 */
+	public ScheduleUpdater(String target,
+						   int interval, RunEvery intervalUnit,
+						   int fromHour, int fromMinute,
+						   int toHour, int toMinute,
+						   ZoneId zone) {
+
+		Assert.notNull(zone, "Missing time zone!");
+
+		runFromTo = true;
+		runOnce = false;
+
+		jobTarget = target;
+		runInterval = interval;
+		runIntervalUnit = intervalUnit;
+
+		runFromHour = fromHour;
+		runFromMinute = fromMinute;
+		runToHour = toHour;
+		runToMinute = toMinute;
+
+		cronExpression = null;
+		zoneId = zone.getId();
+	}
+
+	/**
+	 * Runs once a day at given wall clock time in time zone (daylight saving time aware)
+	 */
+	public ScheduleUpdater(String target,
+						   int atHour, int atMinute,
+						   ZoneId zone) {
+
+		Assert.notNull(zone, "Missing time zone!");
+
+		runFromTo = false;
+		runOnce = true;
+
+		jobTarget = target;
+		runInterval = 1;
+		runIntervalUnit = RunEvery.day;
+
+		runFromHour = atHour;
+		runFromMinute = atMinute;
+		runToHour = null;
+		runToMinute = null;
+
+		cronExpression = null;
+		zoneId = zone.getId();
 	}
 
 	public void update(CronJob job) {
 
+		job.setZone(zoneId);
+
+		if (cronExpression != null) {
+			job.runCron(cronExpression);
+			job.setTarget(jobTarget);
+			return;
+		}
+
 		job.setRunInterval(runInterval, runIntervalUnit);
 		job.setTarget(jobTarget);
 
@@ -0,0 +1,14 @@
+package com.spikeify.cron.data;
+
+import com.spikeify.cron.entities.CronJob;
+
+/**
+ * Moves job that missed its run(s) to next scheduled run without running it
+ */
+public class SkipMissedRunsUpdater implements CronJobUpdater {
+
+	public void update(CronJob job) {
+
+		job.skipMissedRuns();
+	}
+}
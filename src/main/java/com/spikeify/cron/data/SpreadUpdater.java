@@ -0,0 +1,21 @@
+package com.spikeify.cron.data;
+
+import com.spikeify.cron.entities.CronJob;
+
+public class SpreadUpdater implements CronJobUpdater {
+
+	private final long spread;
+
+	/**
+	 * @param spreadMillis window job run is spread in, 0 to disable
+	 */
+	public SpreadUpdater(long spreadMillis) {
+
+		spread = spreadMillis;
+	}
+
+	public void update(CronJob job) {
+
+		job.setSpread(spread);
+	}
+}
@@ -0,0 +1,24 @@
+package com.spikeify.cron.data;
+
+import com.spikeify.cron.entities.CronJob;
+
+public class TimeoutUpdater implements CronJobUpdater {
+
+	private final Integer connectTimeout;
+	private final Integer readTimeout;
+
+	/**
+	 * @param connect connect timeout in milliseconds, null to use global setting
+	 * @param read    read timeout in milliseconds, null to use global setting
+	 */
+	public TimeoutUpdater(Integer connect, Integer read) {
+
+		connectTimeout = connect;
+		readTimeout = read;
+	}
+
+	public void update(CronJob job) {
+
+		job.setTimeouts(connectTimeout, readTimeout);
+	}
+}
@@ -1,9 +1,11 @@
 package com.spikeify.cron.data.json;
 
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.spikeify.cron.NotNullAndIgnoreUnknowns;
 import com.spikeify.cron.data.CronExecutorResult;
 import com.spikeify.cron.entities.enums.CronJobResult;
 import com.spikeify.cron.utils.Assert;
+import com.spikeify.cron.utils.JsonUtils;
 
 /**
  * Used to report cron result via REST call
@@ -11,6 +13,8 @@ import com.spikeify.cron.utils.Assert;
 @NotNullAndIgnoreUnknowns
 public class CronExecutorResultJSON {
 
+	private static final ObjectWriter WRITER = JsonUtils.getWriter(CronExecutorResultJSON.class);
+
 	public int status;
 	public CronJobResult result;
 	public String message;
@@ -22,4 +26,12 @@ public class CronExecutorResultJSON {
 		result = data.getJobResult();
 		message = data.getMessage();
 	}
+
+	/**
+	 * @return JSON representation of result
+	 */
+	public String toJson() {
+
+		return JsonUtils.write(this, WRITER);
+	}
 }
@@ -0,0 +1,305 @@
+package com.spikeify.cron.data.json;
+
+import com.spikeify.cron.entities.enums.MisfirePolicy;
+import com.spikeify.cron.entities.enums.RunEvery;
+import com.spikeify.cron.utils.Assert;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact binary form of exported jobs, holds the same data as the JSON export.
+ *
+ * Layout: magic, version, number of jobs, then each job as: length, field mask, values of present fields.
+ * Strings are length prefixed UTF-8, enums are stored by name, numbers as fixed size big endian values.
+ * Jobs are length prefixed, so fields added in later versions are skipped by older readers.
+ */
+public final class CronJobBinary {
+
+	private CronJobBinary() {
+		// hiding constructor
+	}
+
+	private static final int MAGIC = 0x43524A42; // CRJB
+
+	private static final byte VERSION = 1;
+
+	// field mask bits
+	private static final int DISABLED = 1;
+	private static final int ID = 1 << 1;
+	private static final int NAME = 1 << 2;
+	private static final int TARGET = 1 << 3;
+	private static final int DESCRIPTION = 1 << 4;
+	private static final int FIRST_RUN = 1 << 5;
+	private static final int NEXT_RUN = 1 << 6;
+	private static final int LAST_RUN = 1 << 7;
+	private static final int INTERVAL = 1 << 8;
+	private static final int INTERVAL_UNITS = 1 << 9;
+	private static final int CRON = 1 << 10;
+	private static final int ZONE = 1 << 11;
+	private static final int START_HOUR = 1 << 12;
+	private static final int START_MINUTE = 1 << 13;
+	private static final int END_HOUR = 1 << 14;
+	private static final int END_MINUTE = 1 << 15;
+	private static final int SPREAD = 1 << 16;
+	private static final int MISFIRE = 1 << 17;
+	private static final int CONNECT_TIMEOUT = 1 << 18;
+	private static final int READ_TIMEOUT = 1 << 19;
+	private static final int MAX_RETRIES = 1 << 20;
+	private static final int RETRY_DELAY = 1 << 21;
+	private static final int RETRY_MAX_DELAY = 1 << 22;
+	private static final int HISTORY_SIZE = 1 << 23;
+	private static final int PRIORITY = 1 << 24;
+
+	/**
+	 * @param data to check
+	 * @return true if data starts as binary job export
+	 */
+	public static boolean isBinary(byte[] data) {
+
+		return data != null && data.length >= 4 && ByteBuffer.wrap(data).getInt() == MAGIC;
+	}
+
+	/**
+	 * @param jobs to be written
+	 * @return binary representation of jobs
+	 */
+	public static byte[] write(List<CronJobJSON> jobs) {
+
+		Assert.notNull(jobs, "Missing jobs!");
+
+		try {
+			ByteArrayOutputStream output = new ByteArrayOutputStream(64 + jobs.size() * 128);
+			DataOutputStream out = new DataOutputStream(output);
+
+			out.writeInt(MAGIC);
+			out.writeByte(VERSION);
+			out.writeInt(jobs.size());
+
+			ByteArrayOutputStream record = new ByteArrayOutputStream(256);
+			DataOutputStream job = new DataOutputStream(record);
+
+			for (CronJobJSON item : jobs) {
+				Assert.notNull(item, "Missing job!");
+
+				record.reset();
+				write(item, job);
+
+				out.writeInt(record.size());
+				record.writeTo(out);
+			}
+
+			out.flush();
+			return output.toByteArray();
+		}
+		catch (IOException e) {
+			// can't happen ... writing into memory
+			throw new IllegalStateException("Failed to write jobs: " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * @param data binary representation of jobs
+	 * @return jobs
+	 * @throws IllegalArgumentException in case data is not a valid binary export
+	 */
+	public static List<CronJobJSON> read(byte[] data) {
+
+		Assert.isTrue(isBinary(data), "Given data is not a binary job export!");
+
+		try {
+			ByteBuffer buffer = ByteBuffer.wrap(data);
+			buffer.getInt(); // magic
+
+			byte version = buffer.get();
+			Assert.isTrue(version >= 1 && version <= VERSION, "Unsupported binary job export version: " + version + "!");
+
+			int count = buffer.getInt();
+			Assert.isTrue(count >= 0, "Invalid number of jobs: " + count + "!");
+
+			List<CronJobJSON> output = new ArrayList<>(Math.min(count, buffer.remaining() / 8));
+			for (int i = 0; i < count; i++) {
+
+				int length = buffer.getInt();
+				Assert.isTrue(length >= 4 && length <= buffer.remaining(), "Invalid length of job: " + i + "!");
+
+				int end = buffer.position() + length;
+				output.add(read(buffer));
+
+				buffer.position(end); // skip fields unknown to this version
+			}
+
+			return output;
+		}
+		catch (BufferUnderflowException e) {
+			throw new IllegalArgumentException("Given binary job export is truncated!");
+		}
+	}
+
+	private static void write(CronJobJSON job, DataOutputStream out) throws IOException {
+
+		int mask = (job.disabled ? DISABLED : 0) |
+			(job.id != null ? ID : 0) |
+			(job.name != null ? NAME : 0) |
+			(job.target != null ? TARGET : 0) |
+			(job.description != null ? DESCRIPTION : 0) |
+			(job.firstRun != null ? FIRST_RUN : 0) |
+			(job.nextRun != null ? NEXT_RUN : 0) |
+			(job.lastRun != null ? LAST_RUN : 0) |
+			(job.interval != 0 ? INTERVAL : 0) |
+			(job.intervalUnits != null ? INTERVAL_UNITS : 0) |
+			(job.cron != null ? CRON : 0) |
+			(job.zone != null ? ZONE : 0) |
+			(job.startHour != null ? START_HOUR : 0) |
+			(job.startMinute != null ? START_MINUTE : 0) |
+			(job.endHour != null ? END_HOUR : 0) |
+			(job.endMinute != null ? END_MINUTE : 0) |
+			(job.spread != null ? SPREAD : 0) |
+			(job.misfire != null ? MISFIRE : 0) |
+			(job.connectTimeout != null ? CONNECT_TIMEOUT : 0) |
+			(job.readTimeout != null ? READ_TIMEOUT : 0) |
+			(job.maxRetries != null ? MAX_RETRIES : 0) |
+			(job.retryDelay != null ? RETRY_DELAY : 0) |
+			(job.retryMaxDelay != null ? RETRY_MAX_DELAY : 0) |
+			(job.historySize != null ? HISTORY_SIZE : 0) |
+			(job.priority != null ? PRIORITY : 0);
+
+		out.writeInt(mask);
+
+		writeString(out, job.id);
+		writeString(out, job.name);
+		writeString(out, job.target);
+		writeString(out, job.description);
+
+		writeLong(out, job.firstRun);
+		writeLong(out, job.nextRun);
+		writeLong(out, job.lastRun);
+
+		if (job.interval != 0) {
+			out.writeInt(job.interval);
+		}
+
+		writeString(out, job.intervalUnits != null ? job.intervalUnits.name() : null);
+		writeString(out, job.cron);
+		writeString(out, job.zone);
+
+		writeInt(out, job.startHour);
+		writeInt(out, job.startMinute);
+		writeInt(out, job.endHour);
+		writeInt(out, job.endMinute);
+
+		writeLong(out, job.spread);
+		writeString(out, job.misfire != null ? job.misfire.name() : null);
+
+		writeInt(out, job.connectTimeout);
+		writeInt(out, job.readTimeout);
+
+		writeInt(out, job.maxRetries);
+		writeLong(out, job.retryDelay);
+		writeLong(out, job.retryMaxDelay);
+
+		writeInt(out, job.historySize);
+		writeInt(out, job.priority);
+	}
+
+	private static CronJobJSON read(ByteBuffer buffer) {
+
+		int mask = buffer.getInt();
+		CronJobJSON job = new CronJobJSON();
+
+		job.disabled = (mask & DISABLED) != 0;
+
+		job.id = readString(buffer, mask, ID);
+		job.name = readString(buffer, mask, NAME);
+		job.target = readString(buffer, mask, TARGET);
+		job.description = readString(buffer, mask, DESCRIPTION);
+
+		job.firstRun = readLong(buffer, mask, FIRST_RUN);
+		job.nextRun = readLong(buffer, mask, NEXT_RUN);
+		job.lastRun = readLong(buffer, mask, LAST_RUN);
+
+		Integer interval = readInt(buffer, mask, INTERVAL);
+		job.interval = interval != null ? interval : 0;
+
+		String units = readString(buffer, mask, INTERVAL_UNITS);
+		job.intervalUnits = units != null ? RunEvery.valueOf(units) : null;
+
+		job.cron = readString(buffer, mask, CRON);
+		job.zone = readString(buffer, mask, ZONE);
+
+		job.startHour = readInt(buffer, mask, START_HOUR);
+		job.startMinute = readInt(buffer, mask, START_MINUTE);
+		job.endHour = readInt(buffer, mask, END_HOUR);
+		job.endMinute = readInt(buffer, mask, END_MINUTE);
+
+		job.spread = readLong(buffer, mask, SPREAD);
+
+		String misfire = readString(buffer, mask, MISFIRE);
+		job.misfire = misfire != null ? MisfirePolicy.valueOf(misfire) : null;
+
+		job.connectTimeout = readInt(buffer, mask, CONNECT_TIMEOUT);
+		job.readTimeout = readInt(buffer, mask, READ_TIMEOUT);
+
+		job.maxRetries = readInt(buffer, mask, MAX_RETRIES);
+		job.retryDelay = readLong(buffer, mask, RETRY_DELAY);
+		job.retryMaxDelay = readLong(buffer, mask, RETRY_MAX_DELAY);
+
+		job.historySize = readInt(buffer, mask, HISTORY_SIZE);
+		job.priority = readInt(buffer, mask, PRIORITY);
+
+		return job;
+	}
+
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+
+		if (value != null) {
+			byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+	}
+
+	private static void writeLong(DataOutputStream out, Long value) throws IOException {
+
+		if (value != null) {
+			out.writeLong(value);
+		}
+	}
+
+	private static void writeInt(DataOutputStream out, Integer value) throws IOException {
+
+		if (value != null) {
+			out.writeInt(value);
+		}
+	}
+
+	private static String readString(ByteBuffer buffer, int mask, int field) {
+
+		if ((mask & field) == 0) {
+			return null;
+		}
+
+		int length = buffer.getInt();
+		Assert.isTrue(length >= 0 && length <= buffer.remaining(), "Invalid string length: " + length + "!");
+
+		String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+		buffer.position(buffer.position() + length);
+		return value;
+	}
+
+	private static Long readLong(ByteBuffer buffer, int mask, int field) {
+
+		return (mask & field) != 0 ? buffer.getLong() : null;
+	}
+
+	private static Integer readInt(ByteBuffer buffer, int mask, int field) {
+
+		return (mask & field) != 0 ? buffer.getInt() : null;
+	}
+}
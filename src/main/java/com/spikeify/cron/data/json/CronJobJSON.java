@@ -1,9 +1,16 @@
 package com.spikeify.cron.data.json;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.spikeify.cron.NotNullAndIgnoreUnknowns;
 import com.spikeify.cron.entities.CronJob;
+import com.spikeify.cron.entities.enums.MisfirePolicy;
 import com.spikeify.cron.entities.enums.RunEvery;
 import com.spikeify.cron.utils.Assert;
+import com.spikeify.cron.utils.JsonUtils;
+
+import java.util.List;
 
 /**
  * For REST usage
@@ -11,6 +18,12 @@ import com.spikeify.cron.utils.Assert;
 @NotNullAndIgnoreUnknowns
 public class CronJobJSON {
 
+	private static final ObjectReader READER = JsonUtils.getReader(CronJobJSON.class);
+
+	private static final ObjectReader LIST_READER = JsonUtils.getReader(new TypeReference<List<CronJobJSON>>() {});
+
+	private static final ObjectWriter LIST_WRITER = JsonUtils.getWriter(new TypeReference<List<CronJobJSON>>() {});
+
 	public boolean disabled;
 
 	public String id;
@@ -25,12 +38,34 @@ public class CronJobJSON {
 	public int interval;
 	public RunEvery intervalUnits;
 
+	public String cron;
+
+	/**
+	 * IANA time zone start / end hour and cron are given in, null - hours are given in requested time zone offset
+	 */
+	public String zone;
+
 	public Integer startHour;
 	public Integer startMinute;
 
 	public Integer endHour;
 	public Integer endMinute;
 
+	public Long spread;
+
+	public MisfirePolicy misfire;
+
+	public Integer connectTimeout;
+	public Integer readTimeout;
+
+	public Integer maxRetries;
+	public Long retryDelay;
+	public Long retryMaxDelay;
+
+	public Integer historySize;
+
+	public Integer priority;
+
 	public CronJobJSON() {
 
 	}
@@ -71,6 +106,52 @@ public class CronJobJSON {
 		intervalUnits = job.getIntervalUnit();
 		interval = job.getInterval();
 
+		cron = job.getCron();
+		zone = job.getZone();
+
+		spread = job.getSpread() > 0 ? job.getSpread() : null;
+
+		misfire = job.getMisfirePolicy() != MisfirePolicy.fireOnce ? job.getMisfirePolicy() : null;
+
+		connectTimeout = job.getConnectTimeout();
+		readTimeout = job.getReadTimeout();
+
+		if (job.getMaxRetries() > 0) {
+			maxRetries = job.getMaxRetries();
+			retryDelay = job.getRetryDelay();
+			retryMaxDelay = job.getRetryMaxDelay();
+		}
+
+		historySize = job.getHistorySize() != CronJob.DEFAULT_HISTORY_SIZE ? job.getHistorySize() : null;
+		priority = job.getPriority() != 0 ? job.getPriority() : null;
+
 		description = job.getDescription(false, timeZone);
 	}
+
+	/**
+	 * @param json single job
+	 * @return deserialized job
+	 */
+	public static CronJobJSON fromJson(String json) {
+
+		return JsonUtils.read(json, READER);
+	}
+
+	/**
+	 * @param json list of jobs (as exported)
+	 * @return deserialized jobs
+	 */
+	public static List<CronJobJSON> listFromJson(String json) {
+
+		return JsonUtils.read(json, LIST_READER);
+	}
+
+	/**
+	 * @param jobs list of jobs
+	 * @return JSON representation of jobs
+	 */
+	public static String toJson(List<CronJobJSON> jobs) {
+
+		return JsonUtils.write(jobs, LIST_WRITER);
+	}
 }
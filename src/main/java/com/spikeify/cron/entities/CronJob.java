@@ -4,8 +4,10 @@ import com.spikeify.annotations.Generation;
 import com.spikeify.annotations.Indexed;
 import com.spikeify.annotations.UserKey;
 import com.spikeify.cron.entities.enums.CronJobResult;
+import com.spikeify.cron.entities.enums.MisfirePolicy;
 import com.spikeify.cron.entities.enums.RunEvery;
 import com.spikeify.cron.utils.Assert;
+import com.spikeify.cron.utils.CronExpression;
 import com.spikeify.cron.utils.DateTimeUtils;
 import com.spikeify.cron.utils.StringUtils;
 import com.spikeify.cron.utils.UrlUtils;
@@ -14,10 +16,15 @@ import org.slf4j.LoggerFactory;
 
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.text.SimpleDateFormat;
-import java.util.Calendar;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Objects;
-import java.util.TimeZone;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
 
 /**
  * Entity in database holding information about cron task
@@ -35,6 +42,29 @@ public class CronJob {
 
 	private static final long START_LOCK_DURATION = 60L * 1000L; // 60 seconds
 
+	private static final long MIN_LOCK_DURATION = 5L * 1000L; // 5 seconds
+
+	/**
+	 * connect plus read timeout of default cron settings, used when run timeout was not given on lock
+	 */
+	private static final long DEFAULT_RUN_TIMEOUT = 40L * 1000L; // 40 seconds
+
+	/**
+	 * number of runs kept in history if not given otherwise
+	 */
+	public static final int DEFAULT_HISTORY_SIZE = 50;
+
+	/**
+	 * number of values stored in history for each run
+	 */
+	private static final int HISTORY_RUN_VALUES = 3;
+
+	/**
+	 * order due jobs are run in: higher priority first, then most overdue first
+	 */
+	public static final Comparator<CronJob> DUE_ORDER = Comparator.comparingInt(CronJob::getPriority).reversed()
+	                                                              .thenComparingLong(CronJob::getNextRun);
+
 	/**
 	 * Uniquely generated id
 	 */
@@ -53,6 +83,7 @@ public class CronJob {
 	/*
 	 * time stamp cron job was last modified (schedule)
 	 */
+	@Indexed
 	protected long lastModified;
 
 	/**
@@ -72,6 +103,12 @@ public class CronJob {
 	 */
 	protected Long lastRun;
 
+	/**
+	 * Scheduled time of last regular run (retries of failed run are not regular runs)
+	 * next regular run is calculated from it, so retries don't shift the schedule
+	 */
+	protected Long scheduledRun;
+
 	/**
 	 * Time job was started ... to prevent other thread starting the same cron job
 	 */
@@ -87,6 +124,24 @@ public class CronJob {
 	 */
 	protected String lastMessage;
 
+	/**
+	 * history of runs (oldest first), each run is stored as 3 numbers:
+	 * - start time (first run as is, others as difference to start of previous run)
+	 * - duration in milliseconds
+	 * - status: HTTP status * 8 + job result ordinal
+	 */
+	protected List<Long> history;
+
+	/**
+	 * number of runs kept in history, null - default, 0 - don't keep history
+	 */
+	protected Integer historySize;
+
+	/**
+	 * jobs with higher priority are run first when more jobs are due at once, null - default (0)
+	 */
+	protected Integer priority;
+
 	/**
 	 * Time job should run next
 	 * if nextRun is lower than current time
@@ -97,6 +152,14 @@ public class CronJob {
 	@Indexed
 	protected long nextRun;
 
+	/**
+	 * Time job can be run next: next run, or end of lock while locked
+	 * null - job can't run (disabled, missing target or schedule) or stored by older version
+	 * kept in line with next run and lock, so due jobs are found by index alone
+	 */
+	@Indexed
+	protected Long dueAt;
+
 
 	/**
 	 * SCHEDULE definition
@@ -128,6 +191,76 @@ public class CronJob {
 
 	protected Integer runToMinute;
 
+	/**
+	 * IANA time zone (for instance: Europe/Ljubljana) run from / to and cron expression are given in, null - UTC
+	 */
+	protected String zone;
+
+	/**
+	 * cached rules of time zone
+	 */
+	private transient ZoneRules zoneRules;
+
+	/**
+	 * cron expression (5 or 6 fields), when given interval and run from / to are not used
+	 */
+	protected String cron;
+
+	/**
+	 * compiled cron expression
+	 */
+	private transient CronExpression cronExpression;
+
+	/**
+	 * what to do when job missed scheduled run(s), null - fire once
+	 */
+	protected MisfirePolicy misfire;
+
+	/**
+	 * spread window in milliseconds, job is offset by a fixed amount (derived from job id) within this window
+	 * to avoid all jobs scheduled at the same time to run in the same moment, 0 = no offset
+	 */
+	protected long spread;
+
+	/**
+	 * time in milliseconds to wait for connection to target, null - use global setting
+	 */
+	protected Integer connectTimeout;
+
+	/**
+	 * time in milliseconds to wait for target to respond, null - use global setting
+	 */
+	protected Integer readTimeout;
+
+	/**
+	 * time in milliseconds a run may take (connect plus read timeout) as given when locked, 0 - no timeout, null - not given
+	 */
+	protected Long runTimeout;
+
+	/**
+	 * RETRY policy
+	 */
+
+	/**
+	 * number of retries of failed run before waiting for next scheduled run, 0 = don't retry
+	 */
+	protected int maxRetries;
+
+	/**
+	 * delay in milliseconds before first retry, doubled on each further retry
+	 */
+	protected long retryDelay;
+
+	/**
+	 * max delay in milliseconds between retries
+	 */
+	protected long retryMaxDelay;
+
+	/**
+	 * number of retries made since last successful run
+	 */
+	protected int retryAttempt;
+
 	private boolean locked;
 
 	protected CronJob() {
@@ -142,6 +275,7 @@ public class CronJob {
 		nextRun = RUN_ENABLED;
 		lastModified = 0;
 		startTime = null;
+		dueAt = null;
 	}
 
 	public void setTarget(String newTarget) {
@@ -155,7 +289,7 @@ public class CronJob {
 			calculateNextRun();
 		}
 		catch (URISyntaxException e) {
-			log.error("Invalid target URI: " + newTarget, e);
+			log.error("Invalid target URI: {}", newTarget, e);
 			throw new IllegalArgumentException("Invalid target URI: " + newTarget);
 		}
 	}
@@ -169,7 +303,7 @@ public class CronJob {
 
 	public boolean canRun() {
 
-		return !(isDisabled() || target == null || intervalUnit == null);
+		return !(isDisabled() || target == null || (intervalUnit == null && cron == null));
 
 	}
 
@@ -187,6 +321,7 @@ public class CronJob {
 
 		if (!isDisabled()) {
 			disableNextRun();
+			calculateDueAt();
 		}
 	}
 
@@ -208,6 +343,19 @@ public class CronJob {
 		return id;
 	}
 
+	public int getGeneration() {
+
+		return generation;
+	}
+
+	/**
+	 * @return time schedule or next run was last changed
+	 */
+	public long getLastModified() {
+
+		return lastModified;
+	}
+
 	public String getName() {
 
 		return name;
@@ -273,6 +421,10 @@ public class CronJob {
 
 	public Integer getRunFromHour(int timeZone) {
 
+		if (zone != null) {
+			return runFromHour; // already in job time zone
+		}
+
 		return runFromHour != null ? DateTimeUtils.getTimezoneHour(runFromHour, timeZone) : null;
 	}
 
@@ -288,6 +440,10 @@ public class CronJob {
 
 	public Integer getRunToHour(int timeZone) {
 
+		if (zone != null) {
+			return runToHour; // already in job time zone
+		}
+
 		return runToHour != null ? DateTimeUtils.getTimezoneHour(runToHour, timeZone) : null;
 	}
 
@@ -296,6 +452,108 @@ public class CronJob {
 		return runToMinute;
 	}
 
+	public MisfirePolicy getMisfirePolicy() {
+
+		return misfire != null ? misfire : MisfirePolicy.fireOnce;
+	}
+
+	public void setMisfirePolicy(MisfirePolicy policy) {
+
+		misfire = policy == MisfirePolicy.fireOnce ? null : policy;
+		calculateNextRun();
+	}
+
+	/**
+	 * @param time      current time
+	 * @param threshold max delay in milliseconds of a run still considered on time
+	 * @return true if job has run before and missed its scheduled run(s)
+	 */
+	public boolean isMisfired(long time, long threshold) {
+
+		return !isDisabled() && lastRun != null && nextRun < time - threshold;
+	}
+
+	/**
+	 * Drops missed runs and moves next run to next scheduled time in the future
+	 */
+	public void skipMissedRuns() {
+
+		MisfirePolicy policy = misfire;
+		misfire = MisfirePolicy.skip;
+		calculateNextRun();
+		misfire = policy;
+	}
+
+	public long getSpread() {
+
+		return spread;
+	}
+
+	/**
+	 * Sets spread window, each job is moved by a fixed offset (derived from job id) inside the window when aligned to run from time
+	 *
+	 * @param spreadMillis window size in milliseconds, 0 to disable
+	 */
+	public void setSpread(long spreadMillis) {
+
+		Assert.isTrue(spreadMillis >= 0 && spreadMillis <= ONE_DAY_IN_MILLISECONDS, "Expected spread: 0 - " + ONE_DAY_IN_MILLISECONDS + ", but was: " + spreadMillis);
+
+		spread = spreadMillis;
+		calculateNextRun();
+	}
+
+	/**
+	 * @return offset of job inside spread window, same for every calculation
+	 */
+	protected long getSpreadOffset() {
+
+		if (spread <= 0) {
+			return 0;
+		}
+
+		// String.hashCode() is stable across restarts ... mix bits to spread similar ids evenly
+		int hash = id != null ? id.hashCode() : name.hashCode();
+		hash ^= hash >>> 16;
+		hash *= 0x85ebca6b;
+		hash ^= hash >>> 13;
+		hash *= 0xc2b2ae35;
+		hash ^= hash >>> 16;
+
+		return Math.floorMod((long) hash, spread);
+	}
+
+	public Integer getConnectTimeout() {
+
+		return connectTimeout;
+	}
+
+	public Integer getReadTimeout() {
+
+		return readTimeout;
+	}
+
+	/**
+	 * @param defaultConnect connect timeout used if job has none (0 = no timeout)
+	 * @param defaultRead    read timeout used if job has none (0 = no timeout)
+	 * @return time in milliseconds a run may take (connect plus read timeout), 0 - no timeout
+	 */
+	public long getRunTimeout(int defaultConnect, int defaultRead) {
+
+		int connect = connectTimeout != null ? connectTimeout : defaultConnect;
+		int read = readTimeout != null ? readTimeout : defaultRead;
+
+		return connect > 0 && read > 0 ? (long) connect + read : 0;
+	}
+
+	public void setTimeouts(Integer connect, Integer read) {
+
+		Assert.isTrue(connect == null || connect > 0, "Connect timeout must be > 0, but was: " + connect + "!");
+		Assert.isTrue(read == null || read > 0, "Read timeout must be > 0, but was: " + read + "!");
+
+		connectTimeout = connect;
+		readTimeout = read;
+	}
+
 	public void setFirstRun(long startTime) {
 
 		Assert.isTrue(startTime >= 0, "Start time must be >= 0!");
@@ -309,6 +567,7 @@ public class CronJob {
 
 		// clear last run
 		lastRun = null;
+		scheduledRun = null;
 
 		calculateNextRun();
 	}
@@ -318,12 +577,236 @@ public class CronJob {
 		Assert.isTrue(runTime <= getTime(), "Last run time can't be in the future!");
 		Assert.notNull(result, "Missing cron job result!");
 
+		// retry of failed run ... keep regular schedule of run being retried
+		if (retryAttempt == 0 || scheduledRun == null) {
+			scheduledRun = runTime;
+		}
+
 		lastRun = runTime;
 		lastResult = result;
 		lastMessage = message != null ? message.trim() : null;
 		startTime = null; // unlock
+		runTimeout = null;
 
 		calculateNextRun();
+
+		if (result == CronJobResult.ok || retryAttempt >= maxRetries) {
+			retryAttempt = 0;
+			return;
+		}
+
+		// failed ... reschedule retry if it comes before next regular run
+		long retry = Math.max(runTime + getRetryDelay(retryAttempt), getTime());
+		if (retry < nextRun) {
+			nextRun = retry;
+			calculateDueAt();
+		}
+
+		retryAttempt++;
+	}
+
+	/**
+	 * Adds run to history, oldest runs are removed once history is full
+	 *
+	 * @param start      time run was started
+	 * @param duration   time in milliseconds run took
+	 * @param result     of run
+	 * @param httpStatus HTTP status returned by target
+	 */
+	public void addHistory(long start, long duration, CronJobResult result, int httpStatus) {
+
+		Assert.notNull(result, "Missing cron job result!");
+
+		if (getHistorySize() == 0) {
+			history = null;
+			return;
+		}
+
+		if (history == null) {
+			history = new ArrayList<>();
+		}
+
+		history.add(history.isEmpty() ? start : start - getHistoryStart(history.size() / HISTORY_RUN_VALUES - 1));
+		history.add(Math.max(0, duration));
+		history.add(Math.max(0, httpStatus) * 8L + result.ordinal());
+
+		trimHistory();
+	}
+
+	/**
+	 * @return all runs in history, oldest first
+	 */
+	public List<CronRun> getHistory() {
+
+		return getHistory(Long.MIN_VALUE, Long.MAX_VALUE);
+	}
+
+	/**
+	 * @param from start of run (including)
+	 * @param to   start of run (excluding)
+	 * @return runs started in given time frame, oldest first
+	 */
+	public List<CronRun> getHistory(long from, long to) {
+
+		if (history == null || history.isEmpty()) {
+			return Collections.emptyList();
+		}
+
+		CronJobResult[] results = CronJobResult.values();
+		List<CronRun> output = new ArrayList<>();
+
+		long start = 0;
+		for (int i = 0; i + HISTORY_RUN_VALUES <= history.size(); i += HISTORY_RUN_VALUES) {
+
+			start += history.get(i);
+			if (start < from || start >= to) {
+				continue;
+			}
+
+			long status = history.get(i + 2);
+			int ordinal = (int) (status % 8);
+			CronJobResult result = ordinal < results.length ? results[ordinal] : null;
+
+			output.add(new CronRun(start, history.get(i + 1), result, (int) (status / 8)));
+		}
+
+		return output;
+	}
+
+	/**
+	 * @param size number of runs kept in history, null - default, 0 - don't keep history
+	 */
+	public void setHistorySize(Integer size) {
+
+		Assert.isTrue(size == null || size >= 0, "History size must be >= 0, but was: " + size + "!");
+		historySize = size;
+
+		trimHistory();
+	}
+
+	public int getHistorySize() {
+
+		return historySize != null ? historySize : DEFAULT_HISTORY_SIZE;
+	}
+
+	/**
+	 * @param value higher priority jobs are run first when more jobs are due at once, null or 0 - default
+	 */
+	public void setPriority(Integer value) {
+
+		Integer changed = value != null && value != 0 ? value : null;
+		if (!Objects.equals(priority, changed)) {
+			priority = changed;
+			lastModified = System.currentTimeMillis(); // so change is picked up by listModified()
+		}
+	}
+
+	public int getPriority() {
+
+		return priority != null ? priority : 0;
+	}
+
+	/**
+	 * @param index of run in history
+	 * @return start time of run
+	 */
+	private long getHistoryStart(int index) {
+
+		long start = 0;
+		for (int i = 0; i <= index; i++) {
+			start += history.get(i * HISTORY_RUN_VALUES);
+		}
+
+		return start;
+	}
+
+	private void trimHistory() {
+
+		if (history == null) {
+			return;
+		}
+
+		int size = getHistorySize();
+		if (size == 0) {
+			history = null;
+			return;
+		}
+
+		int remove = history.size() / HISTORY_RUN_VALUES - size;
+		if (remove <= 0) {
+			return;
+		}
+
+		// new oldest run keeps its start time as is
+		long start = getHistoryStart(remove);
+		history = new ArrayList<>(history.subList(remove * HISTORY_RUN_VALUES, history.size()));
+		history.set(0, start);
+	}
+
+	public int getMaxRetries() {
+
+		return maxRetries;
+	}
+
+	public long getRetryDelay() {
+
+		return retryDelay;
+	}
+
+	public long getRetryMaxDelay() {
+
+		return retryMaxDelay;
+	}
+
+	public int getRetryAttempt() {
+
+		return retryAttempt;
+	}
+
+	/**
+	 * Sets retry policy of failed runs
+	 *
+	 * @param retries  number of retries, 0 to disable retries
+	 * @param delay    delay in milliseconds before first retry (doubled with each further retry)
+	 * @param maxDelay max delay in milliseconds between retries
+	 */
+	public void setRetry(int retries, long delay, long maxDelay) {
+
+		Assert.isTrue(retries >= 0, "Retries must be >= 0, but was: " + retries + "!");
+		Assert.isTrue(retries == 0 || delay > 0, "Retry delay must be > 0, but was: " + delay + "!");
+		Assert.isTrue(maxDelay >= delay, "Retry max delay must be >= retry delay, but was: " + maxDelay + "!");
+
+		maxRetries = retries;
+		retryDelay = delay;
+		retryMaxDelay = maxDelay;
+		retryAttempt = 0;
+	}
+
+	/**
+	 * Exponential backoff with jitter: half of delay is fixed, other half is random
+	 * so failed jobs of the same target don't retry all at once
+	 *
+	 * @param attempt retry attempt (0 = first retry)
+	 * @return delay in milliseconds
+	 */
+	private long getRetryDelay(int attempt) {
+
+		long delay = retryMaxDelay;
+		if (attempt < 62 && retryDelay <= (retryMaxDelay >> attempt)) {
+			delay = retryDelay << attempt;
+		}
+
+		long half = delay / 2;
+		return delay - half + getJitter(half);
+	}
+
+	/**
+	 * @param bound max jitter
+	 * @return random number between 0 and bound (for test mocking purposes)
+	 */
+	protected long getJitter(long bound) {
+
+		return bound > 0 ? ThreadLocalRandom.current().nextLong(bound + 1) : 0;
 	}
 
 	public void setRunInterval(int number, RunEvery unit) {
@@ -334,9 +817,95 @@ public class CronJob {
 		interval = number;
 		intervalUnit = unit;
 
+		cron = null;
+		cronExpression = null;
+
 		calculateNextRun();
 	}
 
+	/**
+	 * Sets schedule by cron expression, replacing interval and run from / to
+	 *
+	 * @param expression cron expression with 5 (minute hour day-of-month month day-of-week) or 6 fields (with leading second)
+	 */
+	public void runCron(String expression) {
+
+		cronExpression = CronExpression.parse(expression);
+		cron = cronExpression.getExpression();
+
+		interval = 0;
+		intervalUnit = null;
+
+		runFromHour = null;
+		runFromMinute = null;
+		runToHour = null;
+		runToMinute = null;
+
+		calculateNextRun();
+	}
+
+	public String getCron() {
+
+		return cron;
+	}
+
+	private CronExpression getCronExpression() {
+
+		if (cronExpression == null && cron != null) {
+			cronExpression = CronExpression.parse(cron);
+		}
+
+		return cronExpression;
+	}
+
+	/**
+	 * Sets time zone run from / to and cron expression are given in (daylight saving time aware)
+	 *
+	 * @param zoneId IANA time zone id, for instance: Europe/Ljubljana, null for UTC
+	 * @throws IllegalArgumentException in case of unknown time zone
+	 */
+	public void setZone(String zoneId) {
+
+		zoneRules = zoneId != null ? DateTimeUtils.getZoneRules(zoneId) : null;
+		zone = zoneId;
+
+		calculateNextRun();
+	}
+
+	public String getZone() {
+
+		return zone;
+	}
+
+	private ZoneRules getZoneRules() {
+
+		if (zoneRules == null && zone != null) {
+			zoneRules = DateTimeUtils.getZoneRules(zone);
+		}
+
+		return zoneRules;
+	}
+
+	/**
+	 * @param time UTC time
+	 * @return wall clock time in job time zone
+	 */
+	private long toLocalTime(long time) {
+
+		ZoneRules rules = getZoneRules();
+		return rules == null ? time : DateTimeUtils.toLocalTime(time, rules);
+	}
+
+	/**
+	 * @param localTime wall clock time in job time zone
+	 * @return UTC time
+	 */
+	private long toUtcTime(long localTime) {
+
+		ZoneRules rules = getZoneRules();
+		return rules == null ? localTime : DateTimeUtils.toUtcTime(localTime, rules);
+	}
+
 	public void runExactlyAt(int hour, int minute) {
 
 		checkHour(hour);
@@ -399,7 +968,26 @@ public class CronJob {
 
 	public void setStarted(long time) {
 
+		setStarted(time, null);
+	}
+
+	/**
+	 * @param time          lock time
+	 * @param timeoutMillis time run may take (see {@link #getRunTimeout(int, int)}), job stays locked at least this long, null - not known
+	 */
+	public void setStarted(long time, Long timeoutMillis) {
+
 		startTime = time;
+		runTimeout = timeoutMillis;
+		calculateDueAt();
+	}
+
+	/**
+	 * @return time job can be run next (next run, or end of lock while locked), null if job can't run
+	 */
+	public Long getDueAt() {
+
+		return dueAt;
 	}
 
 	public long getStartedTime() {
@@ -413,7 +1001,24 @@ public class CronJob {
 	public boolean isLocked() {
 
 		return startTime != null &&
-			nextRun + START_LOCK_DURATION > System.currentTimeMillis(); // 1 minute lock at the most
+			nextRun + getLockDuration() > System.currentTimeMillis();
+	}
+
+	/**
+	 * @return time in milliseconds job stays locked after next run time (shorter for jobs running every few seconds),
+	 * but never shorter than a run may take, so job is not run again by other instance while target is still being called
+	 */
+	protected long getLockDuration() {
+
+		long intervalMillis = getIntervalMillis();
+		long lock = intervalMillis <= 0 ? START_LOCK_DURATION : Math.min(START_LOCK_DURATION, Math.max(intervalMillis, MIN_LOCK_DURATION));
+
+		long timeout = runTimeout != null ? runTimeout : DEFAULT_RUN_TIMEOUT;
+		if (timeout <= 0) {
+			return Math.max(lock, START_LOCK_DURATION); // no timeout ... can't be covered, lock as long as possible
+		}
+
+		return Math.max(lock, timeout + MIN_LOCK_DURATION); // plus time to start and store result
 	}
 
 	@Override
@@ -422,17 +1027,31 @@ public class CronJob {
 		return id + " [" + name + "] " + getDescription(true, 0);
 	}
 
+	/**
+	 * @param withTarget true to include target
+	 * @param timeZone   hour offset from UTC times are shown in
+	 * @return description of schedule
+	 */
 	public String getDescription(boolean withTarget, int timeZone) {
 
+		long time = getTime();
+		boolean firstRunShown = firstRun != null && firstRun > time;
+		boolean nextRunShown = nextRun >= time;
+
+		return renderDescription(withTarget, timeZone, firstRunShown, nextRunShown);
+	}
+
+	private String renderDescription(boolean withTarget, int timeZone, boolean firstRunShown, boolean nextRunShown) {
+
 		StringBuilder builder = new StringBuilder();
 
-		if (firstRun != null && firstRun > getTime()) {
+		if (firstRunShown) {
 
 			builder.append("first run: ");
 			builder.append(formatDateTime(firstRun, timeZone));
 		}
 
-		if (intervalUnit == null) {
+		if (intervalUnit == null && cron == null) {
 			if (builder.length() > 0) {
 				builder.append(" ");
 			}
@@ -445,6 +1064,54 @@ public class CronJob {
 			builder.append(", ");
 		}
 
+		if (cron != null) {
+			builder.append("runs at: ").append(cron);
+		}
+		else {
+			appendInterval(builder, timeZone);
+		}
+
+		if (zone != null) {
+			builder.append(" (").append(zone).append(")");
+		}
+
+		if (withTarget) {
+			if (target == null || target.trim().length() == 0) {
+				builder.append(", missing target (job will not run)");
+			}
+			else {
+				builder.append(", target: ").append(target);
+			}
+		}
+
+		if (misfire != null) {
+			builder.append(", on misfire: ").append(misfire.name());
+		}
+
+		if (spread > 0) {
+			builder.append(", spread: ").append(spread / 1000L).append("s");
+		}
+
+		if (maxRetries > 0) {
+			builder.append(", retries: ").append(maxRetries);
+		}
+
+		if (priority != null) {
+			builder.append(", priority: ").append(priority);
+		}
+
+		if (isDisabled()) {
+			builder.append(", next run: disabled");
+		}
+		else if (nextRunShown) {
+			builder.append(", next run: ").append(formatDateTime(nextRun, timeZone));
+		}
+
+		return builder.toString();
+	}
+
+	private void appendInterval(StringBuilder builder, int timeZone) {
+
 		builder.append("runs every ");
 
 		int lastDigit = interval % 10;
@@ -487,24 +1154,6 @@ public class CronJob {
 				builder.append(getRunTimeFormatted(runToHour, runToMinute, timeZone));
 			}
 		}
-
-		if (withTarget) {
-			if (target == null || target.trim().length() == 0) {
-				builder.append(", missing target (job will not run)");
-			}
-			else {
-				builder.append(", target: ").append(target);
-			}
-		}
-
-		if (isDisabled()) {
-			builder.append(", next run: disabled");
-		}
-		else if (nextRun >= getTime()) {
-			builder.append(", next run: ").append(formatDateTime(nextRun, timeZone));
-		}
-
-		return builder.toString();
 	}
 
 	private String getRunTimeFormatted(Integer hour, Integer minute, int timezone) {
@@ -513,7 +1162,9 @@ public class CronJob {
 			return "";
 		}
 
-		hour = DateTimeUtils.getTimezoneHour(hour, timezone);
+		if (zone == null) {
+			hour = DateTimeUtils.getTimezoneHour(hour, timezone);
+		}
 
 		String out = (hour < 10) ? "0" + hour : "" + hour;
 		out = out + ":";
@@ -522,9 +1173,7 @@ public class CronJob {
 
 	private String formatDateTime(long time, int timezone) {
 
-		SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm");
-		format.setCalendar(getCalendar(timezone));
-		return DateTimeUtils.format(time, format);
+		return DateTimeUtils.formatMinutes(time, timezone);
 	}
 
 	/**
@@ -534,44 +1183,140 @@ public class CronJob {
 
 		lastModified = System.currentTimeMillis();
 
-		if (isDisabled()) {
-			return; // nothing to calculate
+		if (!isDisabled()) {
+			nextRun = calculateNextRun(getTime(), firstRun, scheduledRun != null ? scheduledRun : lastRun);
 		}
 
-		long currentTime = getTime();
+		calculateDueAt();
+	}
+
+	/**
+	 * Mirrors run(): job can run once next run is reached, unless locked, then once lock expires
+	 */
+	private void calculateDueAt() {
 
+		if (!canRun() || nextRun < RUN_ENABLED) {
+			dueAt = null;
+		}
+		else if (startTime != null) {
+			dueAt = nextRun + getLockDuration();
+		}
+		else {
+			dueAt = nextRun;
+		}
+	}
+
+	/**
+	 * Projects upcoming runs of job assuming each run is made on time (job is not changed)
+	 *
+	 * @param from time to project from (including)
+	 * @param to   time to project until (excluding)
+	 * @param runs receives time of each run
+	 */
+	public void project(long from, long to, LongConsumer runs) {
+
+		Assert.notNull(runs, "Missing runs consumer!");
+
+		if (!canRun() || nextRun < RUN_ENABLED) {
+			return; // job will not run
+		}
+
+		long time = nextRun;
+		long step = getIntervalMillis();
+
+		if (step > 0 && !hasRunFrom() && !hasRunTo() && !isWallClockStep(intervalUnit)) {
+
+			// plain interval ... no need to calculate each run
+			if (time < from) {
+				time += ((from - time + step - 1) / step) * step;
+			}
+
+			for (; time < to; time += step) {
+				runs.accept(time);
+			}
+
+			return;
+		}
+
+		while (time < to) {
+
+			if (time >= from) {
+				runs.accept(time);
+			}
+
+			// first run is behind us ... next one is calculated from last one
+			long next = calculateNextRun(time, null, time);
+			if (next <= time) {
+				break; // should not happen ... but anyhow don't loop forever
+			}
+
+			time = next;
+		}
+	}
+
+	/**
+	 * Projects upcoming runs of job assuming each run is made on time (job is not changed)
+	 *
+	 * @param from time to project from (including)
+	 * @param to   time to project until (excluding)
+	 * @return times of runs
+	 */
+	public long[] project(long from, long to) {
+
+		LongStream.Builder builder = LongStream.builder();
+		project(from, to, builder);
+		return builder.build().toArray();
+	}
+
+	/**
+	 * Calculates next run without changing job
+	 *
+	 * @param currentTime  time to calculate from
+	 * @param firstRunTime time of first run, null if not given
+	 * @param lastRunTime  time of last run, null if not run yet
+	 * @return time of next run
+	 */
+	private long calculateNextRun(long currentTime, Long firstRunTime, Long lastRunTime) {
+
+		if (cron != null) {
+			return calculateNextCronRun(currentTime, firstRunTime, lastRunTime);
+		}
+
+		// first run as soon as possible ... spread out in spread window if aligned to current time or run from time
 		long start = currentTime;
-		if (firstRun != null && firstRun >= currentTime) {
-			start = firstRun;
+		boolean aligned = true;
+
+		if (firstRunTime != null && firstRunTime >= currentTime) {
+			start = firstRunTime;
+			aligned = false;
 		}
 
-		if (lastRun != null &&
-			(firstRun == null || firstRun < lastRun) &&
-			lastRun <= currentTime) {
-			start = lastRun;
+		if (lastRunTime != null &&
+			(firstRunTime == null || firstRunTime < lastRunTime) &&
+			lastRunTime <= currentTime) {
+			aligned = false;
+			start = lastRunTime;
 			// calculate next run ...
-			start = getNextRunFor(intervalUnit, interval, start);
+			start = getNextRunFor(intervalUnit, interval, start, currentTime);
 		}
 
-		// check if from / to limits are met
-		Calendar calendar = getCalendar(0);
-		calendar.setTimeInMillis(start);
-		int startHour = calendar.get(Calendar.HOUR_OF_DAY);
-		int startMinute = calendar.get(Calendar.MINUTE);
+		// check if from / to limits are met (on wall clock of job time zone)
+		long local = toLocalTime(start);
+		int startHour = getHour(local);
+		int startMinute = getMinute(local);
 
 		if (hasRunFrom() &&
 			runFromBeforeRunTo() &&
 			isBefore(startHour, startMinute, runFromHour, runFromMinute)) {
 
 			// start at run from hour:minute
-			calendar.setTimeInMillis(start);
-			calendar.set(Calendar.HOUR_OF_DAY, runFromHour);
-			calendar.set(Calendar.MINUTE, runFromMinute);
-			start = calendar.getTimeInMillis();
+			local = alignToRunFrom(local);
+			start = toUtcTime(local);
+			aligned = true;
 
 			// recalculate
-			startHour = calendar.get(Calendar.HOUR_OF_DAY);
-			startMinute = calendar.get(Calendar.MINUTE);
+			startHour = getHour(local);
+			startMinute = getMinute(local);
 		}
 
 		if (hasRunTo() &&
@@ -579,10 +1324,9 @@ public class CronJob {
 			isAfter(startHour, startMinute, runToHour, runToMinute)) {
 
 			// + ONE DAY
-			calendar.setTimeInMillis(start + ONE_DAY_IN_MILLISECONDS);
-			calendar.set(Calendar.HOUR_OF_DAY, runFromHour);
-			calendar.set(Calendar.MINUTE, runFromMinute);
-			start = calendar.getTimeInMillis();
+			local = alignToRunFrom(local + ONE_DAY_IN_MILLISECONDS);
+			start = toUtcTime(local);
+			aligned = true;
 		}
 
 
@@ -593,13 +1337,72 @@ public class CronJob {
 			isBefore(startHour, startMinute, runFromHour, runFromMinute)) {
 
 			// start at run to hour:minute
-			calendar.setTimeInMillis(start);
-			calendar.set(Calendar.HOUR_OF_DAY, runFromHour);
-			calendar.set(Calendar.MINUTE, runFromMinute);
-			start = calendar.getTimeInMillis();
+			local = alignToRunFrom(local);
+			start = toUtcTime(local);
+			aligned = true;
 		}
 
-		nextRun = start;
+		return aligned ? start + getSpreadOffset() : start;
+	}
+
+	private long calculateNextCronRun(long currentTime, Long firstRunTime, Long lastRunTime) {
+
+		long start = currentTime - 1; // include current time
+		if (firstRunTime != null && firstRunTime >= currentTime) {
+			start = firstRunTime - 1;
+		}
+
+		if (lastRunTime != null &&
+			(firstRunTime == null || firstRunTime < lastRunTime) &&
+			lastRunTime <= currentTime) {
+
+			start = lastRunTime;
+		}
+
+		// runs are spread out after each cron time
+		long next = getCronExpression().next(start - getSpreadOffset(), getZoneRules()) + getSpreadOffset();
+		if (next < currentTime) {
+
+			switch (getMisfirePolicy()) {
+				case fireAll:
+					return next; // catch up missed runs one by one
+
+				case skip:
+					return getCronExpression().next(currentTime - 1 - getSpreadOffset(), getZoneRules()) + getSpreadOffset();
+
+				default:
+					return currentTime;
+			}
+		}
+
+		return next;
+	}
+
+	/**
+	 * @param localTime wall clock time
+	 * @return run from hour:minute on same day as given time
+	 */
+	private long alignToRunFrom(long localTime) {
+
+		long day = Math.floorDiv(localTime, ONE_DAY_IN_MILLISECONDS) * ONE_DAY_IN_MILLISECONDS;
+		long time = (runFromHour * 60L + runFromMinute) * 60L * 1000L;
+
+		if (spread == 0) {
+			// keep seconds ... exact run from time is needed only when offset is added afterwards
+			time += Math.floorMod(localTime, 60L * 1000L);
+		}
+
+		return day + time;
+	}
+
+	private static int getHour(long localTime) {
+
+		return (int) (Math.floorMod(localTime, ONE_DAY_IN_MILLISECONDS) / (60L * 60L * 1000L));
+	}
+
+	private static int getMinute(long localTime) {
+
+		return (int) (Math.floorMod(localTime, 60L * 60L * 1000L) / (60L * 1000L));
 	}
 
 	private boolean isBefore(int hour, int minute, int compareHour, int compareMinute) {
@@ -643,41 +1446,79 @@ public class CronJob {
 			lastModified <= timeStamp;
 	}
 
-	private long getNextRunFor(RunEvery interval, long intervalUnits, long start) {
+	private long getNextRunFor(RunEvery interval, long intervalUnits, long start, long time) {
 
 		// calculate next interval
-		switch (interval) {
-			case minute:
-				start = start + (60L * 1000L) * intervalUnits;
-				break;
+		long step = getIntervalMillis(interval, intervalUnits);
 
-			case hour:
-				start = start + (60L * 60L * 1000L) * intervalUnits;
-				break;
+		// days and weeks are stepped on wall clock, so runs keep their local time over daylight saving time changes
+		boolean wallClock = isWallClockStep(interval);
+		start = wallClock ? toUtcTime(toLocalTime(start) + step) : start + step;
 
-			case day:
-				start = start + ONE_DAY_IN_MILLISECONDS * intervalUnits;
-				break;
+		// new calculated time is in the past ...
+		if (start < time) {
 
-			case week:
-				start = start + (ONE_DAY_IN_MILLISECONDS * 7L * intervalUnits);
-				break;
-		}
+			switch (getMisfirePolicy()) {
+				case fireAll:
+					return start; // catch up missed runs one by one
 
-		// new calculated time is in the past ...
-		if (start < getTime()) {
-			return getTime();
+				case skip:
+					// next scheduled run in the future
+					if (wallClock) {
+						long local = toLocalTime(start);
+						return toUtcTime(local + ((toLocalTime(time) - local + step - 1) / step) * step);
+					}
+
+					return start + ((time - start + step - 1) / step) * step;
+
+				default:
+					return time;
+			}
 		}
 
 		return start;
 	}
 
-	private Calendar getCalendar(int timezone) {
+	/**
+	 * @return true if interval is stepped on wall clock of job time zone instead of adding fixed number of milliseconds
+	 */
+	private boolean isWallClockStep(RunEvery interval) {
+
+		return (interval == RunEvery.day || interval == RunEvery.week) && getZoneRules() != null;
+	}
+
+	/**
+	 * @return interval in milliseconds or 0 if job is not run by interval
+	 */
+	public long getIntervalMillis() {
+
+		if (intervalUnit == null || cron != null) {
+			return 0;
+		}
+
+		return getIntervalMillis(intervalUnit, interval);
+	}
+
+	private static long getIntervalMillis(RunEvery interval, long intervalUnits) {
+
+		switch (interval) {
+			case second:
+				return 1000L * intervalUnits;
+
+			case minute:
+				return (60L * 1000L) * intervalUnits;
 
-		TimeZone zone = TimeZone.getTimeZone("UTC");
-		zone.setRawOffset(60 * 60 * 1000 * timezone);
+			case hour:
+				return (60L * 60L * 1000L) * intervalUnits;
 
-		return Calendar.getInstance(zone);
+			case day:
+				return ONE_DAY_IN_MILLISECONDS * intervalUnits;
+
+			case week:
+				return ONE_DAY_IN_MILLISECONDS * 7L * intervalUnits;
+		}
+
+		throw new IllegalArgumentException("Unsupported interval: " + interval);
 	}
 
 	@Override
@@ -694,12 +1535,25 @@ public class CronJob {
 			Objects.equals(compare.runFromHour, runFromHour) &&
 			Objects.equals(compare.runFromMinute, runFromMinute) &&
 			Objects.equals(compare.runToHour, runToHour) &&
-			Objects.equals(compare.runToMinute, runToMinute);
+			Objects.equals(compare.runToMinute, runToMinute) &&
+			Objects.equals(compare.cron, cron) &&
+			Objects.equals(compare.zone, zone);
 	}
 
+	/**
+	 * Computed from same fields as equals() without allocation (jobs can be put into hash sets / maps cheaply)
+	 */
 	@Override
 	public int hashCode() {
 
-		return getDescription(true, 0).hashCode();
+		int result = Objects.hashCode(name);
+		result = 31 * result + Objects.hashCode(target);
+		result = 31 * result + Objects.hashCode(firstRun);
+		result = 31 * result + Objects.hashCode(runFromHour);
+		result = 31 * result + Objects.hashCode(runFromMinute);
+		result = 31 * result + Objects.hashCode(runToHour);
+		result = 31 * result + Objects.hashCode(runToMinute);
+		result = 31 * result + Objects.hashCode(cron);
+		return 31 * result + Objects.hashCode(zone);
 	}
 }
@@ -0,0 +1,56 @@
+package com.spikeify.cron.entities;
+
+import com.spikeify.cron.entities.enums.CronJobResult;
+import com.spikeify.cron.utils.DateTimeUtils;
+
+/**
+ * Single run of cron job as kept in job history
+ */
+public class CronRun {
+
+	private final long start;
+	private final long duration;
+
+	private final CronJobResult result;
+	private final int httpStatus;
+
+	public CronRun(long startTime, long durationMillis, CronJobResult jobResult, int status) {
+
+		start = startTime;
+		duration = durationMillis;
+		result = jobResult;
+		httpStatus = status;
+	}
+
+	/**
+	 * @return time run was started (UTC)
+	 */
+	public long getStart() {
+
+		return start;
+	}
+
+	/**
+	 * @return time in milliseconds run took
+	 */
+	public long getDuration() {
+
+		return duration;
+	}
+
+	public CronJobResult getResult() {
+
+		return result;
+	}
+
+	public int getHttpStatus() {
+
+		return httpStatus;
+	}
+
+	@Override
+	public String toString() {
+
+		return DateTimeUtils.formatDateTime(start) + " " + result + " (" + httpStatus + ") in " + duration + "ms";
+	}
+}
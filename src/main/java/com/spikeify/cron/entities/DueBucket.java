@@ -0,0 +1,100 @@
+package com.spikeify.cron.entities;
+
+import com.spikeify.annotations.Expires;
+import com.spikeify.annotations.UserKey;
+import com.spikeify.cron.utils.Assert;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Jobs due within one minute: job id and next run of each job.
+ * Entries are not removed when a job is moved to another bucket, stale entries are recognized by their next run.
+ */
+public class DueBucket {
+
+	public static final long BUCKET_SIZE = 60 * 1000L; // 1 minute
+
+	/**
+	 * bin holding jobs (written with server side map operations)
+	 */
+	public static final String JOBS_BIN = "jobs";
+
+	@UserKey
+	protected String key;
+
+	/**
+	 * record is dropped by database once expired
+	 */
+	@Expires
+	protected long expires;
+
+	/**
+	 * job id / next run
+	 */
+	protected Map<String, Long> jobs;
+
+	protected DueBucket() {
+		// for Spikeify
+	}
+
+	/**
+	 * @param bucketMinute bucket number (see {@link #getMinute(long)})
+	 * @param retention    time in milliseconds bucket is kept after its minute has passed
+	 */
+	public DueBucket(long bucketMinute, long retention) {
+
+		key = getKey(bucketMinute);
+		expires = getExpires(bucketMinute, retention);
+		jobs = new HashMap<>();
+	}
+
+	/**
+	 * @param time in milliseconds
+	 * @return minute since epoch given time falls into
+	 */
+	public static long getMinute(long time) {
+
+		return time / BUCKET_SIZE;
+	}
+
+	/**
+	 * @param bucketMinute minute since epoch
+	 * @return key of bucket record
+	 */
+	public static String getKey(long bucketMinute) {
+
+		return "due-" + bucketMinute;
+	}
+
+	/**
+	 * @param bucketMinute minute since epoch
+	 * @param retention    time in milliseconds bucket is kept after its minute has passed
+	 * @return time bucket expires
+	 */
+	public static long getExpires(long bucketMinute, long retention) {
+
+		Assert.isTrue(bucketMinute >= 0, "Bucket minute must be >= 0!");
+		Assert.isTrue(retention > 0, "Bucket retention must be > 0!");
+
+		return (bucketMinute + 1) * BUCKET_SIZE + retention;
+	}
+
+	public String getKey() {
+
+		return key;
+	}
+
+	public long getExpires() {
+
+		return expires;
+	}
+
+	/**
+	 * @return job id / next run of jobs in bucket
+	 */
+	public Map<String, Long> getJobs() {
+
+		return jobs != null ? jobs : new HashMap<>();
+	}
+}
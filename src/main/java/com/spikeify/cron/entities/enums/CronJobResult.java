@@ -3,5 +3,7 @@ package com.spikeify.cron.entities.enums;
 public enum  CronJobResult {
 
 	ok,
-	fail
+	fail,
+	unavailable, // target was not called as circuit breaker for target host is open
+	timeout // target did not respond in time, call was cancelled
 }
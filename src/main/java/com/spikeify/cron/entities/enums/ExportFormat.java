@@ -0,0 +1,10 @@
+package com.spikeify.cron.entities.enums;
+
+/**
+ * Format jobs are exported / imported in
+ */
+public enum ExportFormat {
+
+	json,  // list of CronJobJSON as UTF-8 JSON (default)
+	binary // compact length-prefixed binary (see CronJobBinary), faster to load large job inventories
+}
@@ -0,0 +1,11 @@
+package com.spikeify.cron.entities.enums;
+
+/**
+ * Defines what happens with a job that missed one or more scheduled runs (cron was not triggered in time)
+ */
+public enum MisfirePolicy {
+
+	fireOnce, // will run once as soon as possible, missed runs are dropped (default)
+	skip,     // will not run until next scheduled time, missed runs are dropped
+	fireAll   // will run each missed run with its own time, replayed one after another in the same cron trigger (subject to misfire limit)
+}
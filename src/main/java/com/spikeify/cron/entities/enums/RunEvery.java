@@ -6,6 +6,7 @@ package com.spikeify.cron.entities.enums;
  */
 public enum RunEvery {
 
+	second, // will run every X seconds (according to runEvery) - needs cron to be triggered at least once per second
 	minute, // will run every X minutes (according to runEvery)
 	hour,	// will run every X hours (according to runEvery)
 	day,	// will run every X days (according to runEvery)
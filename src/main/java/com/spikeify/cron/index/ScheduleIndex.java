@@ -0,0 +1,589 @@
+package com.spikeify.cron.index;
+
+import com.spikeify.cron.utils.Assert;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * In memory index of job ids by due time (next run, or lock expiry of running job), used to find due jobs without querying the database.
+ * Only jobs with due time >= 0 are held (disabled jobs are not indexed).
+ *
+ * Each job is held by an int handle into primitive arrays (no object per job):
+ * handles are ordered by due time in a binary heap, ids are kept as UTF-8 bytes in a shared array
+ * and looked up through an open addressing hash table.
+ * Memory per job is about 44 bytes plus the length of its id.
+ */
+public class ScheduleIndex {
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	private static final int INITIAL_ID_BYTES = 256;
+
+	private static final int NO_HANDLE = -1;
+
+	// per handle
+	private long[] dueTimes;
+	private int[] generations;
+	private int[] priorities;
+	private int[] hashes;
+	private long[] idRefs;     // offset of id in idBytes << 16 | length of id
+	private int[] heapIndex;   // position in heap, NO_HANDLE if handle is free
+
+	// handles ordered by due time
+	private int[] heap;
+	private int size;
+
+	// freed handles to be reused
+	private int[] freeHandles;
+	private int freeCount;
+	private int handleCount;
+
+	// handle + 1 by id hash, 0 - empty slot
+	private int[] table;
+
+	// UTF-8 ids
+	private byte[] idBytes;
+	private int idBytesUsed;
+	private int idBytesFreed;
+
+	public ScheduleIndex() {
+
+		clear();
+	}
+
+	/**
+	 * Adds or moves job with default priority in index
+	 *
+	 * @param id         of job
+	 * @param dueAt      time job is due, negative removes job from index
+	 * @param generation of job record
+	 */
+	public void put(String id, long dueAt, int generation) {
+
+		put(id, dueAt, generation, 0);
+	}
+
+	/**
+	 * Adds or moves job in index
+	 *
+	 * @param id         of job
+	 * @param dueAt      time job is due, negative removes job from index
+	 * @param generation of job record
+	 * @param priority   of job, higher priority jobs are listed first when due
+	 */
+	public synchronized void put(String id, long dueAt, int generation, int priority) {
+
+		Assert.notNull(id, "Missing job id!");
+
+		if (dueAt < 0) {
+			remove(id);
+			return;
+		}
+
+		byte[] bytes = encode(id);
+		int hash = hash(bytes);
+
+		int handle = find(bytes, hash);
+		if (handle != NO_HANDLE) {
+
+			long previous = dueTimes[handle];
+			dueTimes[handle] = dueAt;
+			generations[handle] = generation;
+			priorities[handle] = priority;
+
+			if (dueAt < previous) {
+				siftUp(heapIndex[handle]);
+			}
+			else if (dueAt > previous) {
+				siftDown(heapIndex[handle]);
+			}
+
+			return;
+		}
+
+		handle = allocate();
+		dueTimes[handle] = dueAt;
+		generations[handle] = generation;
+		priorities[handle] = priority;
+		hashes[handle] = hash;
+		idRefs[handle] = storeId(bytes);
+
+		insert(handle);
+
+		heap[size] = handle;
+		heapIndex[handle] = size;
+		size++;
+		siftUp(size - 1);
+	}
+
+	/**
+	 * @param id of job
+	 * @return true if removed, false if not indexed
+	 */
+	public synchronized boolean remove(String id) {
+
+		if (id == null) {
+			return false;
+		}
+
+		byte[] bytes = encode(id);
+		int handle = find(bytes, hash(bytes));
+		if (handle == NO_HANDLE) {
+			return false;
+		}
+
+		delete(handle);
+
+		// remove from heap ... last one takes its place
+		int position = heapIndex[handle];
+		size--;
+		if (position != size) {
+			int last = heap[size];
+			heap[position] = last;
+			heapIndex[last] = position;
+
+			siftUp(position);
+			siftDown(heapIndex[last]);
+		}
+
+		heapIndex[handle] = NO_HANDLE;
+		idBytesFreed += (int) (idRefs[handle] & 0xFFFF);
+		freeHandles[freeCount++] = handle;
+
+		if (idBytesFreed > INITIAL_ID_BYTES && idBytesFreed > idBytesUsed / 2) {
+			compactIds();
+		}
+
+		return true;
+	}
+
+	public synchronized boolean contains(String id) {
+
+		return id != null && lookup(id) != NO_HANDLE;
+	}
+
+	/**
+	 * @param id of job
+	 * @return indexed due time or -1 if not indexed
+	 */
+	public synchronized long getDueAt(String id) {
+
+		int handle = id != null ? lookup(id) : NO_HANDLE;
+		return handle != NO_HANDLE ? dueTimes[handle] : -1L;
+	}
+
+	/**
+	 * @param id of job
+	 * @return indexed generation or -1 if not indexed
+	 */
+	public synchronized int getGeneration(String id) {
+
+		int handle = id != null ? lookup(id) : NO_HANDLE;
+		return handle != NO_HANDLE ? generations[handle] : -1;
+	}
+
+	/**
+	 * @param id of job
+	 * @return indexed priority or 0 if not indexed
+	 */
+	public synchronized int getPriority(String id) {
+
+		int handle = id != null ? lookup(id) : NO_HANDLE;
+		return handle != NO_HANDLE ? priorities[handle] : 0;
+	}
+
+	public synchronized int size() {
+
+		return size;
+	}
+
+	/**
+	 * @return approximate number of bytes held by index
+	 */
+	public synchronized long getMemoryUsage() {
+
+		return dueTimes.length * (8L + 4L + 4L + 4L + 8L + 4L) +
+			(long) heap.length * 4L +
+			(long) freeHandles.length * 4L +
+			(long) table.length * 4L +
+			idBytes.length;
+	}
+
+	public synchronized void clear() {
+
+		dueTimes = new long[INITIAL_CAPACITY];
+		generations = new int[INITIAL_CAPACITY];
+		priorities = new int[INITIAL_CAPACITY];
+		hashes = new int[INITIAL_CAPACITY];
+		idRefs = new long[INITIAL_CAPACITY];
+		heapIndex = new int[INITIAL_CAPACITY];
+
+		heap = new int[INITIAL_CAPACITY];
+		freeHandles = new int[INITIAL_CAPACITY];
+		table = new int[INITIAL_CAPACITY * 2];
+		idBytes = new byte[INITIAL_ID_BYTES];
+
+		size = 0;
+		freeCount = 0;
+		handleCount = 0;
+		idBytesUsed = 0;
+		idBytesFreed = 0;
+	}
+
+	/**
+	 * @param time current time
+	 * @return ids of jobs due before or at given time, highest priority and most overdue first
+	 */
+	public List<String> due(long time) {
+
+		return due(time, 0);
+	}
+
+	/**
+	 * @param time  current time
+	 * @param limit max number of ids returned, 0 - no limit
+	 * @return ids of jobs due before or at given time, highest priority and most overdue first
+	 */
+	public synchronized List<String> due(long time, int limit) {
+
+		Assert.isTrue(limit >= 0, "Expecting limit >= 0!");
+
+		// walk heap ... subtrees with root after given time are skipped
+		int[] found = new int[16];
+		int count = 0;
+
+		int[] stack = new int[16];
+		int top = 0;
+
+		if (size > 0) {
+			stack[top++] = 0;
+		}
+
+		while (top > 0) {
+			int position = stack[--top];
+			int handle = heap[position];
+			if (dueTimes[handle] > time) {
+				continue;
+			}
+
+			if (count == found.length) {
+				found = Arrays.copyOf(found, count * 2);
+			}
+
+			found[count++] = handle;
+
+			for (int child = 2 * position + 1; child <= 2 * position + 2 && child < size; child++) {
+				if (top == stack.length) {
+					stack = Arrays.copyOf(stack, top * 2);
+				}
+
+				stack[top++] = child;
+			}
+		}
+
+		// ids are only decoded for returned handles
+		return IntStream.of(found).limit(count)
+		                .boxed()
+		                .sorted(Comparator.comparingInt((Integer handle) -> -priorities[handle])
+		                                  .thenComparingLong(handle -> dueTimes[handle])
+		                                  .thenComparing(this::compareIds))
+		                .limit(limit > 0 ? limit : count)
+		                .map(this::getId)
+		                .collect(Collectors.toList());
+	}
+
+	/**
+	 * @param takenAt time index was last in sync with database
+	 * @return copy of index
+	 */
+	public synchronized ScheduleSnapshot snapshot(long takenAt) {
+
+		String[] ids = new String[size];
+		long[] runs = new long[size];
+		int[] gens = new int[size];
+		int[] prios = new int[size];
+
+		for (int i = 0; i < size; i++) {
+			int handle = heap[i];
+			ids[i] = getId(handle);
+			runs[i] = dueTimes[handle];
+			gens[i] = generations[handle];
+			prios[i] = priorities[handle];
+		}
+
+		return new ScheduleSnapshot(takenAt, ids, runs, gens, prios);
+	}
+
+	/**
+	 * Replaces content of index with snapshot
+	 *
+	 * @param snapshot to load
+	 */
+	public synchronized void load(ScheduleSnapshot snapshot) {
+
+		Assert.notNull(snapshot, "Missing snapshot!");
+
+		clear();
+		for (int i = 0; i < snapshot.size(); i++) {
+			put(snapshot.getId(i), snapshot.getDueAt(i), snapshot.getGeneration(i), snapshot.getPriority(i));
+		}
+	}
+
+	private int lookup(String id) {
+
+		byte[] bytes = encode(id);
+		return find(bytes, hash(bytes));
+	}
+
+	private String getId(int handle) {
+
+		long ref = idRefs[handle];
+		return new String(idBytes, (int) (ref >>> 16), (int) (ref & 0xFFFF), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Compares ids of given handles on stored UTF-8 bytes (same order as code points), without decoding them
+	 */
+	private int compareIds(int first, int second) {
+
+		long firstRef = idRefs[first];
+		long secondRef = idRefs[second];
+
+		int firstOffset = (int) (firstRef >>> 16);
+		int secondOffset = (int) (secondRef >>> 16);
+		int firstLength = (int) (firstRef & 0xFFFF);
+		int secondLength = (int) (secondRef & 0xFFFF);
+
+		for (int i = 0; i < firstLength && i < secondLength; i++) {
+			int compare = (idBytes[firstOffset + i] & 0xFF) - (idBytes[secondOffset + i] & 0xFF);
+			if (compare != 0) {
+				return compare;
+			}
+		}
+
+		return firstLength - secondLength;
+	}
+
+	private static byte[] encode(String id) {
+
+		byte[] bytes = id.getBytes(StandardCharsets.UTF_8);
+		Assert.isTrue(bytes.length <= 0xFFFF, "Job id too long: " + id + "!");
+		return bytes;
+	}
+
+	private static int hash(byte[] bytes) {
+
+		int hash = Arrays.hashCode(bytes);
+		return hash ^ (hash >>> 16);
+	}
+
+	// heap
+
+	private boolean before(int handle, int other) {
+
+		return dueTimes[handle] < dueTimes[other];
+	}
+
+	private void siftUp(int position) {
+
+		int handle = heap[position];
+		while (position > 0) {
+			int parent = (position - 1) >>> 1;
+			if (!before(handle, heap[parent])) {
+				break;
+			}
+
+			heap[position] = heap[parent];
+			heapIndex[heap[position]] = position;
+			position = parent;
+		}
+
+		heap[position] = handle;
+		heapIndex[handle] = position;
+	}
+
+	private void siftDown(int position) {
+
+		int handle = heap[position];
+		while (true) {
+			int child = 2 * position + 1;
+			if (child >= size) {
+				break;
+			}
+
+			if (child + 1 < size && before(heap[child + 1], heap[child])) {
+				child++;
+			}
+
+			if (!before(heap[child], handle)) {
+				break;
+			}
+
+			heap[position] = heap[child];
+			heapIndex[heap[position]] = position;
+			position = child;
+		}
+
+		heap[position] = handle;
+		heapIndex[handle] = position;
+	}
+
+	// handles
+
+	private int allocate() {
+
+		if (freeCount > 0) {
+			return freeHandles[--freeCount];
+		}
+
+		if (handleCount == dueTimes.length) {
+			int capacity = dueTimes.length * 2;
+			dueTimes = Arrays.copyOf(dueTimes, capacity);
+			generations = Arrays.copyOf(generations, capacity);
+			priorities = Arrays.copyOf(priorities, capacity);
+			hashes = Arrays.copyOf(hashes, capacity);
+			idRefs = Arrays.copyOf(idRefs, capacity);
+			heapIndex = Arrays.copyOf(heapIndex, capacity);
+			heap = Arrays.copyOf(heap, capacity);
+			freeHandles = Arrays.copyOf(freeHandles, capacity);
+		}
+
+		return handleCount++;
+	}
+
+	// id hash table (linear probing)
+
+	private int find(byte[] id, int hash) {
+
+		int mask = table.length - 1;
+		for (int slot = hash & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+			int handle = table[slot] - 1;
+			if (hashes[handle] == hash && sameId(handle, id)) {
+				return handle;
+			}
+		}
+
+		return NO_HANDLE;
+	}
+
+	private boolean sameId(int handle, byte[] id) {
+
+		long ref = idRefs[handle];
+		int length = (int) (ref & 0xFFFF);
+		if (length != id.length) {
+			return false;
+		}
+
+		int offset = (int) (ref >>> 16);
+		for (int i = 0; i < length; i++) {
+			if (idBytes[offset + i] != id[i]) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private void insert(int handle) {
+
+		if ((size + 1) * 2 > table.length) {
+			rehash(table.length * 2);
+		}
+
+		int mask = table.length - 1;
+		int slot = hashes[handle] & mask;
+		while (table[slot] != 0) {
+			slot = (slot + 1) & mask;
+		}
+
+		table[slot] = handle + 1;
+	}
+
+	private void delete(int handle) {
+
+		int mask = table.length - 1;
+		int slot = hashes[handle] & mask;
+		while (table[slot] != handle + 1) {
+			slot = (slot + 1) & mask;
+		}
+
+		// shift following entries back ... no tombstones
+		table[slot] = 0;
+		int next = slot;
+		while (true) {
+			next = (next + 1) & mask;
+			if (table[next] == 0) {
+				return;
+			}
+
+			int home = hashes[table[next] - 1] & mask;
+			boolean movable = slot <= next ? (home <= slot || home > next) : (home <= slot && home > next);
+			if (movable) {
+				table[slot] = table[next];
+				table[next] = 0;
+				slot = next;
+			}
+		}
+	}
+
+	private void rehash(int capacity) {
+
+		int[] old = table;
+		table = new int[capacity];
+
+		int mask = capacity - 1;
+		for (int entry : old) {
+			if (entry != 0) {
+				int slot = hashes[entry - 1] & mask;
+				while (table[slot] != 0) {
+					slot = (slot + 1) & mask;
+				}
+
+				table[slot] = entry;
+			}
+		}
+	}
+
+	// ids
+
+	private long storeId(byte[] id) {
+
+		if (idBytesUsed + id.length > idBytes.length) {
+			idBytes = Arrays.copyOf(idBytes, Math.max(idBytes.length * 2, idBytesUsed + id.length));
+		}
+
+		int offset = idBytesUsed;
+		System.arraycopy(id, 0, idBytes, offset, id.length);
+		idBytesUsed += id.length;
+
+		return ((long) offset << 16) | id.length;
+	}
+
+	/**
+	 * drops ids of removed jobs
+	 */
+	private void compactIds() {
+
+		byte[] compacted = new byte[Math.max(INITIAL_ID_BYTES, idBytesUsed - idBytesFreed)];
+		int used = 0;
+
+		for (int i = 0; i < size; i++) {
+			int handle = heap[i];
+			long ref = idRefs[handle];
+			int length = (int) (ref & 0xFFFF);
+
+			System.arraycopy(idBytes, (int) (ref >>> 16), compacted, used, length);
+			idRefs[handle] = ((long) used << 16) | length;
+			used += length;
+		}
+
+		idBytes = compacted;
+		idBytesUsed = used;
+		idBytesFreed = 0;
+	}
+}
@@ -0,0 +1,215 @@
+package com.spikeify.cron.index;
+
+import com.spikeify.cron.utils.Assert;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Point in time copy of schedule index: (id, due time, generation, priority) of each job.
+ *
+ * Stored in a memory mapped file: magic, version, time taken, number of jobs,
+ * then due time, generation, priority, id length and UTF-8 id of each job.
+ * Snapshots of any other version are not read (all jobs are scanned instead).
+ */
+public final class ScheduleSnapshot {
+
+	private static final int MAGIC = 0x43525358; // CRSX
+
+	private static final byte VERSION = 2;
+
+	private static final int HEADER_SIZE = 4 + 1 + 8 + 4;
+
+	private final long takenAt;
+
+	private final String[] ids;
+
+	private final long[] dueTimes;
+
+	private final int[] generations;
+
+	private final int[] priorities;
+
+	/**
+	 * @param time           index was in sync with database (changes after this time are not included)
+	 * @param jobIds         job ids
+	 * @param jobDueTimes    due time of each job
+	 * @param jobGenerations generation of each job
+	 */
+	public ScheduleSnapshot(long time, String[] jobIds, long[] jobDueTimes, int[] jobGenerations) {
+
+		this(time, jobIds, jobDueTimes, jobGenerations, new int[jobIds != null ? jobIds.length : 0]);
+	}
+
+	/**
+	 * @param time           index was in sync with database (changes after this time are not included)
+	 * @param jobIds         job ids
+	 * @param jobDueTimes    due time of each job
+	 * @param jobGenerations generation of each job
+	 * @param jobPriorities  priority of each job
+	 */
+	public ScheduleSnapshot(long time, String[] jobIds, long[] jobDueTimes, int[] jobGenerations, int[] jobPriorities) {
+
+		Assert.notNull(jobIds, "Missing job ids!");
+		Assert.notNull(jobDueTimes, "Missing due times!");
+		Assert.notNull(jobGenerations, "Missing generations!");
+		Assert.notNull(jobPriorities, "Missing priorities!");
+		Assert.isTrue(jobIds.length == jobDueTimes.length && jobIds.length == jobGenerations.length && jobIds.length == jobPriorities.length,
+		              "Expected same number of ids, due times, generations and priorities!");
+
+		takenAt = time;
+		ids = jobIds;
+		dueTimes = jobDueTimes;
+		generations = jobGenerations;
+		priorities = jobPriorities;
+	}
+
+	public long getTakenAt() {
+
+		return takenAt;
+	}
+
+	public int size() {
+
+		return ids.length;
+	}
+
+	public String getId(int index) {
+
+		return ids[index];
+	}
+
+	public long getDueAt(int index) {
+
+		return dueTimes[index];
+	}
+
+	public int getGeneration(int index) {
+
+		return generations[index];
+	}
+
+	public int getPriority(int index) {
+
+		return priorities[index];
+	}
+
+	/**
+	 * Writes snapshot into file, file is replaced only once snapshot is completely written
+	 *
+	 * @param file to write snapshot to
+	 * @throws IOException in case snapshot could not be written
+	 */
+	public void write(Path file) throws IOException {
+
+		Assert.notNull(file, "Missing snapshot file!");
+
+		byte[][] encoded = new byte[ids.length][];
+		long size = HEADER_SIZE;
+
+		for (int i = 0; i < ids.length; i++) {
+			encoded[i] = ids[i].getBytes(StandardCharsets.UTF_8);
+			Assert.isTrue(encoded[i].length <= Short.MAX_VALUE, "Job id too long: " + ids[i] + "!");
+
+			size += 8 + 4 + 4 + 2 + encoded[i].length;
+		}
+
+		Assert.isTrue(size <= Integer.MAX_VALUE, "Snapshot too large: " + size + " bytes!");
+
+		Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+		try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+		                                            StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+
+			buffer.putInt(MAGIC);
+			buffer.put(VERSION);
+			buffer.putLong(takenAt);
+			buffer.putInt(ids.length);
+
+			for (int i = 0; i < ids.length; i++) {
+				buffer.putLong(dueTimes[i]);
+				buffer.putInt(generations[i]);
+				buffer.putInt(priorities[i]);
+				buffer.putShort((short) encoded[i].length);
+				buffer.put(encoded[i]);
+			}
+
+			buffer.force();
+		}
+
+		try {
+			Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (AtomicMoveNotSupportedException e) {
+			Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	/**
+	 * @param file to read snapshot from
+	 * @return snapshot
+	 * @throws IOException in case snapshot could not be read or is not valid
+	 */
+	public static ScheduleSnapshot read(Path file) throws IOException {
+
+		Assert.notNull(file, "Missing snapshot file!");
+
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+			if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+				throw new IOException("Not a schedule snapshot: " + file);
+			}
+
+			byte version = buffer.get();
+			if (version != VERSION) {
+				throw new IOException("Unsupported schedule snapshot version: " + version + ", in: " + file);
+			}
+
+			long takenAt = buffer.getLong();
+			int count = buffer.getInt();
+			if (count < 0 || count > buffer.remaining() / (8 + 4 + 4 + 2)) {
+				throw new IOException("Invalid number of jobs: " + count + ", in: " + file);
+			}
+
+			String[] ids = new String[count];
+			long[] dueTimes = new long[count];
+			int[] generations = new int[count];
+			int[] priorities = new int[count];
+
+			byte[] id = new byte[64];
+			for (int i = 0; i < count; i++) {
+				dueTimes[i] = buffer.getLong();
+				generations[i] = buffer.getInt();
+				priorities[i] = buffer.getInt();
+
+				int length = buffer.getShort();
+				if (length < 0) {
+					throw new IOException("Invalid job id length: " + length + ", in: " + file);
+				}
+
+				if (length > id.length) {
+					id = new byte[length];
+				}
+
+				buffer.get(id, 0, length);
+				ids[i] = new String(id, 0, length, StandardCharsets.UTF_8);
+			}
+
+			return new ScheduleSnapshot(takenAt, ids, dueTimes, generations, priorities);
+		}
+		catch (BufferUnderflowException e) {
+			throw new IOException("Schedule snapshot is truncated: " + file);
+		}
+	}
+}
@@ -0,0 +1,44 @@
+package com.spikeify.cron.metrics;
+
+import com.spikeify.cron.data.CronExecutorResult;
+import com.spikeify.cron.entities.CronJob;
+
+/**
+ * Receives measurements of job execution, implement to pass them to any metrics system
+ */
+public interface CronMetrics {
+
+	/**
+	 * Job was started late (or early)
+	 *
+	 * @param job       started
+	 * @param lagMillis actual start time minus scheduled time
+	 */
+	void lag(CronJob job, long lagMillis);
+
+	/**
+	 * Attempt to lock job before execution
+	 *
+	 * @param job      to be locked
+	 * @param acquired true if lock was acquired, false if other instance locked job first
+	 */
+	void lock(CronJob job, boolean acquired);
+
+	/**
+	 * Job was executed
+	 *
+	 * @param job            executed
+	 * @param target         URL called
+	 * @param result         of execution
+	 * @param durationMillis time execution took
+	 */
+	void executed(CronJob job, String target, CronExecutorResult result, long durationMillis);
+
+	/**
+	 * Job was deleted, measurements kept for job can be dropped
+	 *
+	 * @param job deleted
+	 */
+	default void deleted(CronJob job) {
+	}
+}
@@ -0,0 +1,40 @@
+package com.spikeify.cron.metrics;
+
+import java.util.Map;
+
+/**
+ * Job execution metrics exposed through JMX, times in milliseconds
+ */
+public interface CronMetricsMXBean {
+
+	long getRuns();
+
+	long getFailures();
+
+	long getLagMedian();
+
+	long getLag99();
+
+	long getLagMax();
+
+	long getLatencyMedian();
+
+	long getLatency99();
+
+	long getLatencyMax();
+
+	/**
+	 * @return share of lock attempts lost to other instances (0 - 1)
+	 */
+	double getLockContentionRate();
+
+	/**
+	 * @return 99th percentile of latency by job id (most recently executed jobs only)
+	 */
+	Map<String, Long> getJobLatency99();
+
+	/**
+	 * @return 99th percentile of latency by target host
+	 */
+	Map<String, Long> getHostLatency99();
+}
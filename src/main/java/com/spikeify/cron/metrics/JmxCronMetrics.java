@@ -0,0 +1,329 @@
+package com.spikeify.cron.metrics;
+
+import com.spikeify.cron.data.CronExecutorResult;
+import com.spikeify.cron.entities.CronJob;
+import com.spikeify.cron.entities.enums.CronJobResult;
+import com.spikeify.cron.utils.Assert;
+import com.spikeify.cron.utils.JmxUtils;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Default metrics kept in memory as histograms and exposed through JMX.
+ * Per job histograms are kept only for a limited number of most recently executed jobs.
+ */
+public class JmxCronMetrics implements CronMetrics, CronMetricsMXBean {
+
+	public static final String OBJECT_NAME = "com.spikeify.cron:type=CronMetrics";
+
+	public static final int DEFAULT_MAX_JOBS = 100;
+
+	private static JmxCronMetrics defaultMetrics;
+
+	private final LatencyHistogram lag = new LatencyHistogram();
+
+	private final LatencyHistogram latency = new LatencyHistogram();
+
+	/**
+	 * max number of jobs with own histogram, 0 - no per job histograms
+	 */
+	private final int maxJobs;
+
+	/**
+	 * least recently executed job is evicted when a new job is added once max number of jobs is reached
+	 */
+	private final ConcurrentMap<String, JobLatency> jobLatency = new ConcurrentHashMap<>();
+
+	/**
+	 * order of job executions
+	 */
+	private final AtomicLong executions = new AtomicLong();
+
+	private final ConcurrentMap<String, LatencyHistogram> hostLatency = new ConcurrentHashMap<>();
+
+	private final LongAdder failures = new LongAdder();
+
+	private final LongAdder lockAttempts = new LongAdder();
+
+	private final LongAdder lockContended = new LongAdder();
+
+	public JmxCronMetrics() {
+
+		this(DEFAULT_MAX_JOBS);
+	}
+
+	/**
+	 * @param maxTrackedJobs max number of jobs to keep own latency histogram for (least recently executed are dropped), 0 to disable
+	 */
+	public JmxCronMetrics(int maxTrackedJobs) {
+
+		Assert.isTrue(maxTrackedJobs >= 0, "Max tracked jobs must be >= 0, but was: " + maxTrackedJobs + "!");
+
+		maxJobs = maxTrackedJobs;
+	}
+
+	/**
+	 * @return metrics shared by all cron services, registered with platform MBean server on first call
+	 */
+	public static synchronized JmxCronMetrics getDefault() {
+
+		if (defaultMetrics == null) {
+			defaultMetrics = new JmxCronMetrics();
+			defaultMetrics.register(OBJECT_NAME);
+		}
+
+		return defaultMetrics;
+	}
+
+	/**
+	 * Registers metrics with platform MBean server
+	 *
+	 * @param objectName name to register under
+	 * @return true if registered, false if name is taken or registration failed
+	 */
+	public boolean register(String objectName) {
+
+		return JmxUtils.register(this, objectName);
+	}
+
+	@Override
+	public void lag(CronJob job, long lagMillis) {
+
+		lag.record(lagMillis);
+	}
+
+	@Override
+	public void lock(CronJob job, boolean acquired) {
+
+		lockAttempts.increment();
+		if (!acquired) {
+			lockContended.increment();
+		}
+	}
+
+	@Override
+	public void executed(CronJob job, String target, CronExecutorResult result, long durationMillis) {
+
+		latency.record(durationMillis);
+
+		if (maxJobs > 0) {
+			recordJob(getKey(job), durationMillis);
+		}
+
+		if (target != null) {
+			hostLatency.computeIfAbsent(getHost(target), name -> new LatencyHistogram()).record(durationMillis);
+		}
+
+		if (result.getJobResult() != CronJobResult.ok) {
+			failures.increment();
+		}
+	}
+
+	private void recordJob(String key, long durationMillis) {
+
+		JobLatency tracked = jobLatency.get(key);
+		if (tracked == null) {
+			JobLatency added = new JobLatency();
+			tracked = jobLatency.putIfAbsent(key, added);
+
+			if (tracked == null) {
+				added.record(durationMillis, executions.incrementAndGet());
+				evict(); // new job ... check size only on insert
+				return;
+			}
+		}
+
+		tracked.record(durationMillis, executions.incrementAndGet());
+	}
+
+	/**
+	 * Drops least recently executed jobs over max number of jobs (concurrent inserts might briefly exceed it)
+	 */
+	private void evict() {
+
+		while (jobLatency.size() > maxJobs) {
+
+			String eldest = null;
+			long executed = Long.MAX_VALUE;
+
+			for (Map.Entry<String, JobLatency> entry : jobLatency.entrySet()) {
+				if (entry.getValue().executed < executed) {
+					executed = entry.getValue().executed;
+					eldest = entry.getKey();
+				}
+			}
+
+			if (eldest == null) {
+				return;
+			}
+
+			jobLatency.remove(eldest);
+		}
+	}
+
+	@Override
+	public void deleted(CronJob job) {
+
+		jobLatency.remove(getKey(job));
+	}
+
+	/**
+	 * @return histogram of lag between scheduled and actual start
+	 */
+	public LatencyHistogram getLag() {
+
+		return lag;
+	}
+
+	/**
+	 * @return histogram of execution time of all jobs
+	 */
+	public LatencyHistogram getLatency() {
+
+		return latency;
+	}
+
+	/**
+	 * @param jobId job id
+	 * @return histogram of execution time of job or null if job was not executed yet or is not tracked
+	 */
+	public LatencyHistogram getJobLatency(String jobId) {
+
+		JobLatency tracked = jobLatency.get(jobId);
+		return tracked != null ? tracked.histogram : null;
+	}
+
+	/**
+	 * @param host target host
+	 * @return histogram of execution time of jobs calling host or null if host was not called yet
+	 */
+	public LatencyHistogram getHostLatency(String host) {
+
+		return hostLatency.get(host);
+	}
+
+	@Override
+	public long getRuns() {
+
+		return latency.getCount();
+	}
+
+	@Override
+	public long getFailures() {
+
+		return failures.sum();
+	}
+
+	@Override
+	public long getLagMedian() {
+
+		return lag.getPercentile(50);
+	}
+
+	@Override
+	public long getLag99() {
+
+		return lag.getPercentile(99);
+	}
+
+	@Override
+	public long getLagMax() {
+
+		return lag.getMax();
+	}
+
+	@Override
+	public long getLatencyMedian() {
+
+		return latency.getPercentile(50);
+	}
+
+	@Override
+	public long getLatency99() {
+
+		return latency.getPercentile(99);
+	}
+
+	@Override
+	public long getLatencyMax() {
+
+		return latency.getMax();
+	}
+
+	@Override
+	public double getLockContentionRate() {
+
+		long attempts = lockAttempts.sum();
+		return attempts == 0 ? 0 : (double) lockContended.sum() / attempts;
+	}
+
+	@Override
+	public Map<String, Long> getJobLatency99() {
+
+		Map<String, Long> output = new TreeMap<>();
+		for (Map.Entry<String, JobLatency> entry : jobLatency.entrySet()) {
+			output.put(entry.getKey(), entry.getValue().histogram.getPercentile(99));
+		}
+
+		return output;
+	}
+
+	@Override
+	public Map<String, Long> getHostLatency99() {
+
+		return getPercentiles(hostLatency, 99);
+	}
+
+	private static Map<String, Long> getPercentiles(Map<String, LatencyHistogram> histograms, double percentile) {
+
+		Map<String, Long> output = new TreeMap<>();
+		for (Map.Entry<String, LatencyHistogram> entry : histograms.entrySet()) {
+			output.put(entry.getKey(), entry.getValue().getPercentile(percentile));
+		}
+
+		return output;
+	}
+
+	private static String getKey(CronJob job) {
+
+		return job.getId() != null ? job.getId() : job.getName(); // job not stored yet
+	}
+
+	/**
+	 * Latency histogram of job with order of last execution
+	 */
+	private static final class JobLatency {
+
+		final LatencyHistogram histogram = new LatencyHistogram();
+
+		volatile long executed;
+
+		void record(long durationMillis, long order) {
+
+			histogram.record(durationMillis);
+			executed = order;
+		}
+	}
+
+	private static String getHost(String target) {
+
+		try {
+			URI uri = URI.create(target);
+			String host = uri.getHost();
+			if (host == null) {
+				return "unknown";
+			}
+
+			return uri.getPort() > 0 ? host + ":" + uri.getPort() : host;
+		}
+		catch (IllegalArgumentException e) {
+			return "unknown";
+		}
+	}
+}
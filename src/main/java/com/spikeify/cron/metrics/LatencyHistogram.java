@@ -0,0 +1,119 @@
+package com.spikeify.cron.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock free log-linear histogram (HDR style) of non negative values, for instance latencies in milliseconds.
+ * Values below 32 are counted exactly, larger values fall into buckets with a relative error below 1/16 (~6%).
+ */
+public class LatencyHistogram {
+
+	/**
+	 * 2^SUB_BUCKET_BITS values are counted exactly
+	 */
+	private static final int SUB_BUCKET_BITS = 5;
+
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+	private static final int HALF_SUB_BUCKETS = SUB_BUCKETS / 2;
+
+	private final AtomicLongArray counts = new AtomicLongArray(64 * HALF_SUB_BUCKETS);
+
+	private final LongAdder count = new LongAdder();
+
+	private final LongAdder sum = new LongAdder();
+
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * Records value, negative values are recorded as 0
+	 *
+	 * @param value to record
+	 */
+	public void record(long value) {
+
+		if (value < 0) {
+			value = 0;
+		}
+
+		counts.incrementAndGet(getIndex(value));
+		count.increment();
+		sum.add(value);
+
+		long current = max.get();
+		while (value > current && !max.compareAndSet(current, value)) {
+			current = max.get();
+		}
+	}
+
+	/**
+	 * @return number of recorded values
+	 */
+	public long getCount() {
+
+		return count.sum();
+	}
+
+	public long getMax() {
+
+		return max.get();
+	}
+
+	public double getMean() {
+
+		long total = count.sum();
+		return total == 0 ? 0 : (double) sum.sum() / total;
+	}
+
+	/**
+	 * @param percentile 0 - 100
+	 * @return value below or equal to which given percentile of recorded values falls (upper bound of bucket)
+	 */
+	public long getPercentile(double percentile) {
+
+		long total = count.sum();
+		if (total == 0) {
+			return 0;
+		}
+
+		long target = Math.max(1, (long) Math.ceil(Math.min(100.0, Math.max(0.0, percentile)) / 100.0 * total));
+
+		long seen = 0;
+		for (int i = 0; i < counts.length(); i++) {
+
+			seen += counts.get(i);
+			if (seen >= target) {
+				return Math.min(getHighestValue(i), max.get());
+			}
+		}
+
+		return max.get();
+	}
+
+	static int getIndex(long value) {
+
+		if (value < SUB_BUCKETS) {
+			return (int) value;
+		}
+
+		int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS + 1;
+		return shift * HALF_SUB_BUCKETS + (int) (value >>> shift);
+	}
+
+	/**
+	 * @param index of bucket
+	 * @return highest value counted in bucket
+	 */
+	static long getHighestValue(int index) {
+
+		if (index < SUB_BUCKETS) {
+			return index;
+		}
+
+		int shift = index / HALF_SUB_BUCKETS - 1;
+		long subBucket = index % HALF_SUB_BUCKETS + HALF_SUB_BUCKETS;
+		return ((subBucket + 1) << shift) - 1;
+	}
+}
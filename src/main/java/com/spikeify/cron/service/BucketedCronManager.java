@@ -0,0 +1,327 @@
+package com.spikeify.cron.service;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.Key;
+import com.aerospike.client.Value;
+import com.aerospike.client.cdt.MapOperation;
+import com.aerospike.client.cdt.MapPolicy;
+import com.aerospike.client.policy.RecordExistsAction;
+import com.aerospike.client.policy.WritePolicy;
+import com.spikeify.Spikeify;
+import com.spikeify.SpikeifyService;
+import com.spikeify.cron.data.CronJobUpdater;
+import com.spikeify.cron.data.json.CronJobJSON;
+import com.spikeify.cron.entities.CronJob;
+import com.spikeify.cron.entities.DueBucket;
+import com.spikeify.cron.exceptions.CronJobException;
+import com.spikeify.cron.utils.Assert;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds due jobs through per minute bucket records (minute to ids of jobs due in that minute) instead of a range query over the job index.
+ * Each trigger reads buckets of current and missed minutes and then records of due jobs, both as batch reads,
+ * so cost depends on number of due jobs and not on total number of jobs.
+ *
+ * Buckets are written when a job stored through this manager gets a new next run, with a single server side map put (no read before write).
+ * Entries are never removed, stale entries (job moved, disabled or deleted) are skipped when read and dropped once bucket expires.
+ * Jobs changed by other means, or locked when their bucket was read, are picked up by the due query of given manager once per sweep interval.
+ * Buckets holding due jobs not listed yet (over limit or skipped) are read again on next trigger.
+ */
+public class BucketedCronManager implements CronManager {
+
+	private static final Logger log = LoggerFactory.getLogger(BucketedCronManager.class);
+
+	public static final long DEFAULT_SWEEP_INTERVAL = 60 * 1000L; // 1 minute
+
+	/**
+	 * max number of past buckets read in a single trigger (older are left to sweep)
+	 */
+	private static final int MAX_MISSED_BUCKETS = 60;
+
+	private static final long BUCKET_RETENTION = MAX_MISSED_BUCKETS * DueBucket.BUCKET_SIZE;
+
+	/**
+	 * set name Spikeify stores buckets in (simple class name)
+	 */
+	private static final String BUCKET_SET = DueBucket.class.getSimpleName();
+
+	private final Spikeify sfy;
+
+	private final CronManager manager;
+
+	private final long sweepInterval;
+
+	/**
+	 * first bucket not completely read yet, 0 - no bucket read
+	 */
+	private long nextBucket;
+
+	/**
+	 * jobs from buckets still being read already listed (id / next run)
+	 */
+	private final Map<String, Long> listed = new HashMap<>();
+
+	private long lastSweep;
+
+	public BucketedCronManager(Spikeify spikeify, CronManager cronManager) {
+
+		this(spikeify, cronManager, DEFAULT_SWEEP_INTERVAL);
+	}
+
+	/**
+	 * @param spikeify    to read / store buckets
+	 * @param cronManager manager to read / store jobs
+	 * @param sweepMillis how often the due query of cron manager is run to pick up jobs missing in buckets
+	 */
+	public BucketedCronManager(Spikeify spikeify, CronManager cronManager, long sweepMillis) {
+
+		Assert.notNull(spikeify, "Missing spikeify!");
+		Assert.notNull(cronManager, "Missing cron manager!");
+		Assert.isTrue(sweepMillis > 0, "Sweep interval must be > 0, but was: " + sweepMillis + "!");
+
+		sfy = spikeify;
+		manager = cronManager;
+		sweepInterval = sweepMillis;
+
+		SpikeifyService.register(DueBucket.class);
+	}
+
+	@Override
+	public CronJob create(String name) throws CronJobException {
+
+		return scheduled(-1, manager.create(name));
+	}
+
+	@Override
+	public CronJob update(CronJob job, CronJobUpdater updater) throws CronJobException {
+
+		long previous = getDue(job);
+		return scheduled(previous, manager.update(job, updater));
+	}
+
+	@Override
+	public CronJob updateOptimistic(CronJob job, CronJobUpdater updater) throws CronJobException {
+
+		long previous = getDue(job); // given job is modified by updater
+		return scheduled(previous, manager.updateOptimistic(job, updater));
+	}
+
+	@Override
+	public CronJob get(String id) throws CronJobException {
+
+		return manager.get(id);
+	}
+
+	@Override
+	public CronJob find(String id) {
+
+		return manager.find(id);
+	}
+
+	@Override
+	public CronJob findByName(String name) {
+
+		return manager.findByName(name);
+	}
+
+	@Override
+	public List<CronJob> list() {
+
+		return manager.list();
+	}
+
+	@Override
+	public List<CronJob> list(long time) {
+
+		return list(time, 0);
+	}
+
+	@Override
+	public synchronized List<CronJob> list(long time, int limit) {
+
+		Assert.isTrue(time >= 0, "Expecting time >= 0!");
+		Assert.isTrue(limit >= 0, "Expecting limit >= 0!");
+
+		long minute = DueBucket.getMinute(time);
+		long from = Math.max(nextBucket, minute - MAX_MISSED_BUCKETS);
+		from = Math.max(0, Math.min(from, minute));
+
+		String[] keys = new String[(int) (minute - from + 1)];
+		for (int i = 0; i < keys.length; i++) {
+			keys[i] = DueBucket.getKey(from + i);
+		}
+
+		// jobs due by now not listed before (id / earliest bucket entry)
+		Map<String, Long> candidates = new HashMap<>();
+		for (DueBucket bucket : sfy.getAll(DueBucket.class, keys).now().values()) {
+			if (bucket == null) {
+				continue;
+			}
+
+			for (Map.Entry<String, Long> entry : bucket.getJobs().entrySet()) {
+				if (entry.getValue() <= time && !entry.getValue().equals(listed.get(entry.getKey()))) {
+					candidates.merge(entry.getKey(), entry.getValue(), Math::min);
+				}
+			}
+		}
+
+		Map<String, CronJob> output = new LinkedHashMap<>();
+		if (candidates.size() > 0) {
+
+			for (CronJob job : sfy.getAll(CronJob.class, candidates.keySet().toArray(new String[candidates.size()])).now().values()) {
+
+				// deleted or moved since (stale bucket entry)
+				if (job == null || job.getNextRun() < 0 || job.getNextRun() > time) {
+					continue;
+				}
+
+				if (job.run()) {
+					output.put(job.getId(), job);
+				}
+				else {
+					listed.put(job.getId(), job.getNextRun()); // locked ... left to sweep
+				}
+			}
+		}
+
+		if (time - lastSweep >= sweepInterval) {
+			lastSweep = time;
+
+			for (CronJob job : manager.list(time)) {
+				output.putIfAbsent(job.getId(), job);
+			}
+		}
+
+		List<CronJob> list = new ArrayList<>(output.values());
+		list.sort(CronJob.DUE_ORDER);
+		if (limit > 0 && list.size() > limit) {
+			list = new ArrayList<>(list.subList(0, limit));
+		}
+
+		// only returned jobs are listed, the rest are candidates again on next trigger
+		for (CronJob job : list) {
+			output.remove(job.getId());
+			listed.put(job.getId(), job.getNextRun());
+		}
+
+		// current bucket and buckets still holding due jobs are read again on next trigger, older are done
+		long next = minute;
+		for (String id : output.keySet()) {
+			Long entry = candidates.get(id);
+			if (entry != null) {
+				next = Math.min(next, DueBucket.getMinute(entry));
+			}
+		}
+
+		nextBucket = next;
+		listed.values().removeIf(nextRun -> DueBucket.getMinute(nextRun) < nextBucket);
+
+		return list;
+	}
+
+	/**
+	 * Job is listed again once its bucket is read (bucket is read again even if later triggers have moved past it)
+	 */
+	@Override
+	public synchronized void skipped(CronJob job) {
+
+		if (job == null || job.getId() == null || job.getNextRun() < 0) {
+			return;
+		}
+
+		listed.remove(job.getId());
+		nextBucket = Math.min(nextBucket, DueBucket.getMinute(job.getNextRun()));
+	}
+
+	/**
+	 * Upcoming window is short, so due query of given manager is used
+	 */
+	@Override
+	public List<CronJob> listUpcoming(long from, long to) {
+
+		return manager.listUpcoming(from, to);
+	}
+
+	@Override
+	public List<CronJob> listModified(long since) {
+
+		return manager.listModified(since);
+	}
+
+	/**
+	 * Bucket entry of job is left in place and skipped when read
+	 */
+	@Override
+	public void delete(CronJob job) {
+
+		manager.delete(job);
+	}
+
+	@Override
+	public void importJob(CronJobJSON job, long lastModified, int timeZone) throws CronJobException {
+
+		manager.importJob(job, lastModified, timeZone);
+
+		CronJob imported = manager.findByName(job.name);
+		if (imported != null) {
+			scheduled(-1, imported);
+		}
+	}
+
+	/**
+	 * @return next run of job if it can run, -1 otherwise
+	 */
+	private static long getDue(CronJob job) {
+
+		return job != null && job.getId() != null && job.canRun() ? job.getNextRun() : -1;
+	}
+
+	/**
+	 * Adds job to bucket of its next run, entry in bucket of previous next run is left to be skipped when read
+	 *
+	 * @param previous next run before change, -1 if none or not known
+	 */
+	private CronJob scheduled(long previous, CronJob job) {
+
+		long next = getDue(job);
+		if (next >= 0 && next != previous) {
+			store(next, job.getId());
+		}
+
+		return job;
+	}
+
+	/**
+	 * Puts job into bucket with a single map operation on server, so concurrent writes to the same bucket don't conflict.
+	 * Bucket is created if missing, its expiration is set on each write.
+	 *
+	 * @param nextRun next run of job (selects bucket)
+	 * @param id      of job
+	 */
+	private void store(long nextRun, String id) {
+
+		long minute = DueBucket.getMinute(nextRun);
+		String key = DueBucket.getKey(minute);
+
+		WritePolicy policy = new WritePolicy();
+		policy.recordExistsAction = RecordExistsAction.UPDATE;
+		policy.expiration = (int) Math.max(1, (DueBucket.getExpires(minute, BUCKET_RETENTION) - System.currentTimeMillis()) / 1000L);
+
+		try {
+			sfy.getClient().operate(policy,
+			                        new Key(sfy.getNamespace(), BUCKET_SET, key),
+			                        MapOperation.put(MapPolicy.Default, DueBucket.JOBS_BIN, Value.get(id), Value.get(nextRun)));
+		}
+		catch (AerospikeException e) {
+			// job is still found by sweep
+			log.warn("Failed to update due bucket: {}, of cron job: {}", key, id, e);
+		}
+	}
+}
@@ -0,0 +1,163 @@
+package com.spikeify.cron.service;
+
+import com.spikeify.cron.utils.Assert;
+
+/**
+ * Circuit breaker guarding calls to a single target host.
+ * Opens when given number of failures occurs within the rolling failure window,
+ * while open all calls are rejected until open duration passes,
+ * then a single probe call is let through (half open) to decide if circuit is closed or opened again.
+ *
+ * Each allowed call gets a permit (generation of circuit state it was started in) to report its result with,
+ * so late results of calls started before the last state change are ignored and only the probe decides the half open outcome.
+ */
+public class CircuitBreaker {
+
+	/**
+	 * permit of rejected call
+	 */
+	public static final long REJECTED = -1L;
+
+	public enum State {
+		closed,
+		open,
+		halfOpen
+	}
+
+	private final long failureWindow;
+
+	private final long openDuration;
+
+	/**
+	 * ring buffer of last failure times (as many as failure threshold)
+	 */
+	private final long[] failures;
+
+	private int failureIndex;
+
+	private int failureCount;
+
+	private State state;
+
+	/**
+	 * time circuit was opened or probe call was let through
+	 */
+	private long changed;
+
+	/**
+	 * incremented on each state change (and each probe)
+	 */
+	private long generation;
+
+	/**
+	 * @param failureThreshold number of failures to open circuit
+	 * @param failureWindowMillis rolling window failures are counted in
+	 * @param openDurationMillis time circuit stays open before probe call is let through
+	 */
+	public CircuitBreaker(int failureThreshold, long failureWindowMillis, long openDurationMillis) {
+
+		Assert.isTrue(failureThreshold > 0, "Failure threshold must be > 0, but was: " + failureThreshold + "!");
+		Assert.isTrue(failureWindowMillis > 0, "Failure window must be > 0, but was: " + failureWindowMillis + "!");
+		Assert.isTrue(openDurationMillis > 0, "Open duration must be > 0, but was: " + openDurationMillis + "!");
+
+		failures = new long[failureThreshold];
+		failureWindow = failureWindowMillis;
+		openDuration = openDurationMillis;
+
+		state = State.closed;
+	}
+
+	/**
+	 * @return permit to report result of call with, or {@link #REJECTED} if circuit is open and call should fail fast
+	 */
+	public synchronized long allow() {
+
+		if (state == State.closed) {
+			return generation;
+		}
+
+		// let single probe through once open duration has passed (or previous probe never reported back)
+		long time = getTime();
+		if (time - changed < openDuration) {
+			return REJECTED;
+		}
+
+		state = State.halfOpen;
+		changed = time;
+		return ++generation;
+	}
+
+	/**
+	 * Reports successful call
+	 *
+	 * @param permit given by {@link #allow()} when call was started
+	 */
+	public synchronized void success(long permit) {
+
+		if (permit != generation) {
+			return; // call started before last state change
+		}
+
+		if (state == State.halfOpen) {
+			state = State.closed;
+			generation++;
+			failureCount = 0;
+			failureIndex = 0;
+		}
+	}
+
+	/**
+	 * Reports failed call
+	 *
+	 * @param permit given by {@link #allow()} when call was started
+	 */
+	public synchronized void failure(long permit) {
+
+		if (permit != generation || state == State.open) {
+			return; // call started before last state change
+		}
+
+		long time = getTime();
+		if (state == State.halfOpen) {
+			open(time); // probe failed
+			return;
+		}
+
+		failures[failureIndex] = time;
+		failureIndex = (failureIndex + 1) % failures.length;
+
+		if (failureCount < failures.length) {
+			failureCount++;
+		}
+
+		// failureIndex now points to the oldest of last recorded failures
+		if (failureCount == failures.length &&
+			time - failures[failureIndex] <= failureWindow) {
+			open(time);
+		}
+	}
+
+	public synchronized State getState() {
+
+		return state;
+	}
+
+	private void open(long time) {
+
+		state = State.open;
+		changed = time;
+		generation++;
+		failureCount = 0;
+		failureIndex = 0;
+	}
+
+	/**
+	 * needed for time simulation in unit tests
+	 *
+	 * @return current system time (for test mocking purposes only)
+	 */
+	protected long getTime() {
+
+		return System.currentTimeMillis();
+	}
+}
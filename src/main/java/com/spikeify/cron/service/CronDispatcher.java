@@ -0,0 +1,292 @@
+package com.spikeify.cron.service;
+
+import com.spikeify.cron.utils.Assert;
+import com.spikeify.cron.utils.JmxUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Triggers cron service in short regular intervals (ticks) and runs due jobs on a pool of worker threads,
+ * so jobs running every few seconds are fired on time even when other jobs are slow to respond.
+ * Each tick only hands jobs over to workers, so a slow job never delays the next tick.
+ * With lookahead set, jobs due within lookahead are read in advance and fired exactly at their next run.
+ *
+ * Live state is exposed through JMX once registered (see {@link #register()}).
+ */
+public class CronDispatcher implements CronDispatcherMXBean {
+
+	private static final Logger log = LoggerFactory.getLogger(CronDispatcher.class.getSimpleName());
+
+	public static final String OBJECT_NAME = "com.spikeify.cron:type=CronDispatcher";
+
+	public static final long DEFAULT_TICK = 1000L; // 1 second
+
+	public static final int DEFAULT_WORKERS = 10;
+
+	/**
+	 * window jobs fired per second are averaged over
+	 */
+	private static final double RATE_WINDOW = 60_000.0;
+
+	private final CronServiceImpl service;
+
+	private final long tick;
+
+	private final int workerCount;
+
+	private final long lookahead;
+
+	private ScheduledThreadPoolExecutor ticker;
+
+	private ThreadPoolExecutor workers;
+
+	private volatile boolean paused;
+
+	/**
+	 * tick state ... written only by ticker thread
+	 */
+	private volatile long fired;
+
+	/**
+	 * jobs started by service as of last tick
+	 */
+	private volatile long lastStarted;
+
+	private volatile double firedPerSecond;
+
+	private volatile long tickFailures;
+
+	private volatile long lastTick;
+
+	private volatile long lastTickDuration;
+
+	public CronDispatcher(CronServiceImpl cronService) {
+
+		this(cronService, DEFAULT_WORKERS, DEFAULT_TICK);
+	}
+
+	/**
+	 * @param cronService service to dispatch jobs from
+	 * @param workerThreads number of jobs run in parallel
+	 * @param tickMillis time between two triggers (resolution of scheduling)
+	 */
+	public CronDispatcher(CronServiceImpl cronService, int workerThreads, long tickMillis) {
+
+		this(cronService, workerThreads, tickMillis, 0);
+	}
+
+	/**
+	 * @param cronService     service to dispatch jobs from
+	 * @param workerThreads   number of jobs run in parallel
+	 * @param tickMillis      time between two triggers (resolution of scheduling)
+	 * @param lookaheadMillis jobs due within this time are read ahead and fired exactly at their next run, 0 - no lookahead
+	 */
+	public CronDispatcher(CronServiceImpl cronService, int workerThreads, long tickMillis, long lookaheadMillis) {
+
+		Assert.notNull(cronService, "Missing cron service!");
+		Assert.isTrue(workerThreads > 0, "Worker threads must be > 0, but was: " + workerThreads + "!");
+		Assert.isTrue(tickMillis > 0, "Tick must be > 0, but was: " + tickMillis + "!");
+		Assert.isTrue(lookaheadMillis >= 0, "Lookahead must be >= 0, but was: " + lookaheadMillis + "!");
+
+		service = cronService;
+		workerCount = workerThreads;
+		tick = tickMillis;
+		lookahead = lookaheadMillis;
+	}
+
+	/**
+	 * Starts triggering jobs
+	 */
+	public synchronized void start() {
+
+		Assert.isNull(ticker, "Dispatcher already started!");
+
+		lastStarted = service.getStartedCount();
+
+		workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), threads("cron-worker-"));
+		ticker = new ScheduledThreadPoolExecutor(1, threads("cron-dispatcher-"));
+		ticker.setExecuteExistingDelayedTasksAfterShutdownPolicy(false); // prefetched jobs are dropped on stop
+
+		ThreadPoolExecutor pool = workers;
+		ScheduledExecutorService scheduler = ticker;
+		ticker.scheduleWithFixedDelay(() -> tick(scheduler, pool), 0, tick, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Stops triggering jobs, jobs already running are left to finish
+	 */
+	public synchronized void stop() {
+
+		if (ticker != null) {
+			ticker.shutdown();
+			workers.shutdown();
+			service.clearPrefetched();
+
+			ticker = null;
+			workers = null;
+		}
+	}
+
+	/**
+	 * Registers dispatcher with platform MBean server
+	 *
+	 * @return true if registered, false if other dispatcher is already registered or registration failed
+	 */
+	public boolean register() {
+
+		return JmxUtils.register(this, OBJECT_NAME);
+	}
+
+	@Override
+	public synchronized boolean isRunning() {
+
+		return ticker != null;
+	}
+
+	@Override
+	public boolean isPaused() {
+
+		return paused;
+	}
+
+	@Override
+	public void pause() {
+
+		paused = true;
+	}
+
+	@Override
+	public void resume() {
+
+		paused = false;
+	}
+
+	@Override
+	public int trigger() {
+
+		return service.run();
+	}
+
+	@Override
+	public synchronized int getQueueDepth() {
+
+		return workers != null ? workers.getQueue().size() : 0;
+	}
+
+	@Override
+	public synchronized int getInFlight() {
+
+		return workers != null ? workers.getActiveCount() : 0;
+	}
+
+	@Override
+	public int getPrefetched() {
+
+		return service.getPrefetchedCount();
+	}
+
+	@Override
+	public long getFired() {
+
+		return fired;
+	}
+
+	@Override
+	public double getFiredPerSecond() {
+
+		return firedPerSecond;
+	}
+
+	@Override
+	public long getFailures() {
+
+		return service.getFailures();
+	}
+
+	@Override
+	public long getTickFailures() {
+
+		return tickFailures;
+	}
+
+	@Override
+	public long getLastTick() {
+
+		return lastTick;
+	}
+
+	@Override
+	public long getLastTickDuration() {
+
+		return lastTickDuration;
+	}
+
+	@Override
+	public List<String> getRunningJobs() {
+
+		return service.getRunningJobs();
+	}
+
+	@Override
+	public List<String> getLockedJobs() {
+
+		return service.getLockedJobs();
+	}
+
+	private void tick(ScheduledExecutorService scheduler, ThreadPoolExecutor pool) {
+
+		long start = System.currentTimeMillis();
+		long previous = lastTick;
+
+		if (!paused) {
+			try {
+				service.dispatch(pool);
+
+				if (lookahead > 0) {
+					service.prefetch(scheduler, pool, lookahead);
+				}
+			}
+			catch (Exception e) {
+				// keep ticking ... next tick might succeed
+				tickFailures++;
+				log.error("Failed to dispatch cron jobs: {}", e.getMessage(), e);
+			}
+		}
+
+		// only jobs locked by this instance are counted (dispatched jobs might be taken by other instances)
+		long total = service.getStartedCount();
+		long count = total - lastStarted;
+		lastStarted = total;
+
+		// exponentially weighted jobs per second
+		long end = System.currentTimeMillis();
+		if (previous > 0 && start > previous) {
+			double weight = 1.0 - Math.exp(-(start - previous) / RATE_WINDOW);
+			double rate = count * 1000.0 / (start - previous);
+			firedPerSecond = firedPerSecond + weight * (rate - firedPerSecond);
+		}
+
+		fired += count;
+		lastTick = start;
+		lastTickDuration = end - start;
+	}
+
+	private static ThreadFactory threads(String prefix) {
+
+		AtomicInteger counter = new AtomicInteger();
+		return runnable -> {
+			Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+}
@@ -0,0 +1,88 @@
+package com.spikeify.cron.service;
+
+import java.util.List;
+
+/**
+ * Live state of cron dispatcher exposed through JMX
+ */
+public interface CronDispatcherMXBean {
+
+	/**
+	 * @return true if dispatcher is started
+	 */
+	boolean isRunning();
+
+	/**
+	 * @return true if dispatching is paused
+	 */
+	boolean isPaused();
+
+	/**
+	 * @return number of jobs waiting for a free worker
+	 */
+	int getQueueDepth();
+
+	/**
+	 * @return number of jobs being executed by workers
+	 */
+	int getInFlight();
+
+	/**
+	 * @return number of jobs read ahead, waiting to be fired at their next run
+	 */
+	int getPrefetched();
+
+	/**
+	 * @return number of jobs locked and started by this instance since start
+	 */
+	long getFired();
+
+	/**
+	 * @return jobs started per second (averaged over last minute)
+	 */
+	double getFiredPerSecond();
+
+	/**
+	 * @return number of failed runs on this instance
+	 */
+	long getFailures();
+
+	/**
+	 * @return number of ticks failed to dispatch jobs
+	 */
+	long getTickFailures();
+
+	/**
+	 * @return time of last tick (UTC)
+	 */
+	long getLastTick();
+
+	/**
+	 * @return duration of last tick in milliseconds
+	 */
+	long getLastTickDuration();
+
+	/**
+	 * @return ids of jobs running on this instance
+	 */
+	List<String> getRunningJobs();
+
+	/**
+	 * @return jobs locked by this instance and being executed, with lock holder and start time
+	 */
+	List<String> getLockedJobs();
+
+	/**
+	 * Stops dispatching jobs until resumed, running jobs are left to finish
+	 */
+	void pause();
+
+	void resume();
+
+	/**
+	 * Runs due jobs right away (in calling thread)
+	 *
+	 * @return number of jobs run
+	 */
+	int trigger();
+}
@@ -25,4 +25,19 @@ public interface CronExecutor {
 	 * @return result of cron job
 	 */
 	CronExecutorResult execute(String target, CronSettings settings);
+
+	/**
+	 * Calls target url with basic auth info in header using user and password, cancels call if target doesn't respond in time.
+	 * Executors not supporting timeouts call {@link #execute(String, CronSettings)} ignoring given timeouts.
+	 *
+	 * @param target         to invoke
+	 * @param settings       for basic auth if any
+	 * @param connectTimeout time in milliseconds to wait for connection (0 = no timeout)
+	 * @param readTimeout    time in milliseconds to wait for response (0 = no timeout)
+	 * @return result of cron job
+	 */
+	default CronExecutorResult execute(String target, CronSettings settings, int connectTimeout, int readTimeout) {
+
+		return execute(target, settings);
+	}
 }
@@ -7,9 +7,12 @@ import com.spikeify.cron.utils.Assert;
 import com.spikeify.cron.utils.StringUtils;
 
 import java.net.HttpURLConnection;
+import java.net.SocketTimeoutException;
 import java.net.URL;
 import java.nio.charset.Charset;
 import java.util.Base64;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -17,8 +20,38 @@ public class CronExecutorImpl implements CronExecutor {
 
 	private static final Logger log = LoggerFactory.getLogger(CronExecutorImpl.class);
 
+	private static final int DEFAULT_FAILURE_THRESHOLD = 5;
+	private static final long DEFAULT_FAILURE_WINDOW = 60L * 1000L; // 1 minute
+	private static final long DEFAULT_OPEN_DURATION = 30L * 1000L; // 30 seconds
+
+	private final int failureThreshold;
+	private final long failureWindow;
+	private final long openDuration;
+
+	/**
+	 * circuit breaker per target host
+	 */
+	private final ConcurrentMap<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
 	public CronExecutorImpl() {
 
+		this(DEFAULT_FAILURE_THRESHOLD, DEFAULT_FAILURE_WINDOW, DEFAULT_OPEN_DURATION);
+	}
+
+	/**
+	 * @param circuitFailureThreshold number of failed calls to target host to open circuit
+	 * @param circuitFailureWindow    rolling window in milliseconds failures are counted in
+	 * @param circuitOpenDuration     time in milliseconds circuit stays open before a probe call is made
+	 */
+	public CronExecutorImpl(int circuitFailureThreshold, long circuitFailureWindow, long circuitOpenDuration) {
+
+		Assert.isTrue(circuitFailureThreshold > 0, "Circuit failure threshold must be > 0, but was: " + circuitFailureThreshold + "!");
+		Assert.isTrue(circuitFailureWindow > 0, "Circuit failure window must be > 0, but was: " + circuitFailureWindow + "!");
+		Assert.isTrue(circuitOpenDuration > 0, "Circuit open duration must be > 0, but was: " + circuitOpenDuration + "!");
+
+		failureThreshold = circuitFailureThreshold;
+		failureWindow = circuitFailureWindow;
+		openDuration = circuitOpenDuration;
 	}
 
 	@Override
@@ -27,27 +60,59 @@ public class CronExecutorImpl implements CronExecutor {
 		Assert.notNull(job, "Missing job to run!");
 
 		if (!job.canRun()) {
-			log.warn("Unable to run: " + job + ",  - no schedule defined (job will not run)!");
+			log.warn("Unable to run: {},  - no schedule defined (job will not run)!", job);
 			return CronExecutorResult.fail(HttpURLConnection.HTTP_BAD_REQUEST, "Unable to run: " + job);
 		}
 
 		// if job can run, then target is set ... no need to check twice
 		String target = job.getTarget(settings.getRootUrl());
-		log.info("Running: " + job);
+		log.info("Running: {}", job);
+
+		if (job.getConnectTimeout() == null && job.getReadTimeout() == null) {
+			return execute(target, settings);
+		}
 
-		return execute(target, settings);
+		// job timeouts take precedence over global settings
+		int connectTimeout = job.getConnectTimeout() != null ? job.getConnectTimeout() : settings.getConnectTimeout();
+		int readTimeout = job.getReadTimeout() != null ? job.getReadTimeout() : settings.getReadTimeout();
+
+		return execute(target, settings, connectTimeout, readTimeout);
 	}
 
 	@Override
 	public CronExecutorResult execute(String target, CronSettings settings) {
 
+		return execute(target, settings, settings.getConnectTimeout(), settings.getReadTimeout());
+	}
+
+	@Override
+	public CronExecutorResult execute(String target, CronSettings settings, int connectTimeout, int readTimeout) {
+
+		Assert.isTrue(connectTimeout >= 0, "Connect timeout must be >= 0, but was: " + connectTimeout + "!");
+		Assert.isTrue(readTimeout >= 0, "Read timeout must be >= 0, but was: " + readTimeout + "!");
+
+		CircuitBreaker breaker = null;
+		long permit = CircuitBreaker.REJECTED;
+		HttpURLConnection connection = null;
+
 		try {
 			if (StringUtils.isNullOrEmptyTrimmed(target)) {
 				return CronExecutorResult.fail(HttpURLConnection.HTTP_INTERNAL_ERROR, "No URL given, can't run!");
 			}
 
 			URL obj = new URL(target);
-			HttpURLConnection connection = (HttpURLConnection) obj.openConnection();
+
+			// fail fast if target host is known to be down
+			breaker = getCircuitBreaker(obj);
+			permit = breaker.allow();
+			if (permit == CircuitBreaker.REJECTED) {
+				log.warn("Circuit open, skipping: {}", target);
+				return CronExecutorResult.unavailable("Circuit open for: " + getHost(obj) + ", target not called!");
+			}
+
+			connection = (HttpURLConnection) obj.openConnection();
+			connection.setConnectTimeout(connectTimeout);
+			connection.setReadTimeout(readTimeout);
 
 			// adding headers so target knows it's a cron job calling
 			connection.setRequestProperty("Content-Type", "application/json");
@@ -62,18 +127,55 @@ public class CronExecutorImpl implements CronExecutor {
 
 			int status = connection.getResponseCode();
 
+			// only server errors count as target host failures
+			if (status >= HttpURLConnection.HTTP_INTERNAL_ERROR) {
+				breaker.failure(permit);
+			}
+			else {
+				breaker.success(permit);
+			}
+
 			if (status == HttpURLConnection.HTTP_OK ||
 				status == HttpURLConnection.HTTP_NO_CONTENT) {
-				log.info("Successfully triggered: " + target);
+				log.info("Successfully triggered: {}", target);
 				return CronExecutorResult.ok(status);
 			}
 
-			log.error("Http GET: " + target + ", returned: " + status);
+			log.error("Http GET: {}, returned: {}", target, status);
 			return new CronExecutorResult(CronJobResult.fail, status, "");
 		}
+		catch (SocketTimeoutException e) {
+
+			// hung target ... cancel call so it doesn't block
+			breaker.failure(permit);
+			connection.disconnect();
+
+			log.error("HTTP request to: {}, timed out: {}", target, e.getMessage());
+			return CronExecutorResult.timeout("Timed out: " + e.getMessage());
+		}
 		catch (Exception e) {
-			log.error("Failed to execute HTTP request to: " + target, e);
+
+			if (breaker != null) {
+				breaker.failure(permit);
+			}
+
+			log.error("Failed to execute HTTP request to: {}", target, e);
 			return CronExecutorResult.fail(HttpURLConnection.HTTP_INTERNAL_ERROR, e.getMessage());
 		}
 	}
+
+	/**
+	 * @param target host to get circuit breaker for
+	 * @return circuit breaker of target host
+	 */
+	protected CircuitBreaker getCircuitBreaker(URL target) {
+
+		return breakers.computeIfAbsent(getHost(target), host -> new CircuitBreaker(failureThreshold, failureWindow, openDuration));
+	}
+
+	private static String getHost(URL target) {
+
+		int port = target.getPort() != -1 ? target.getPort() : target.getDefaultPort();
+		return target.getHost() + ":" + port;
+	}
 }
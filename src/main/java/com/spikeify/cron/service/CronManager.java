@@ -4,8 +4,10 @@ import com.spikeify.cron.data.CronJobUpdater;
 import com.spikeify.cron.data.json.CronJobJSON;
 import com.spikeify.cron.entities.CronJob;
 import com.spikeify.cron.exceptions.CronJobException;
+import com.spikeify.cron.utils.Assert;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Takes care of storage and retrieval of cron jobs from to database
@@ -31,6 +33,20 @@ public interface CronManager {
 	 */
 	CronJob update(CronJob job, CronJobUpdater updater) throws CronJobException;
 
+	/**
+	 * Updates job just read from database in a single round trip:
+	 * updater is applied on given job, which is stored only if record was not changed since it was read (same generation).
+	 * In case of a conflict falls back to {@link #update(CronJob, CronJobUpdater)} (record is read again and updater applied to fresh copy).
+	 *
+	 * Given job is modified by updater. Generation of returned job is not refreshed, so use update() for any further change.
+	 *
+	 * @param job     freshly read job to be updated
+	 * @param updater class updating job
+	 * @return updated job
+	 * @throws CronJobException in case of invalid data
+	 */
+	CronJob updateOptimistic(CronJob job, CronJobUpdater updater) throws CronJobException;
+
 	/**
 	 * @param id returns job with id or throws exception if not found
 	 * @return job or throws exception
@@ -65,6 +81,55 @@ public interface CronManager {
 	 */
 	List<CronJob> list(long time);
 
+	/**
+	 * Gets limited list of cron jobs to be executed at certain time of day,
+	 * jobs with highest priority first, then most overdue first (see {@link CronJob#DUE_ORDER})
+	 *
+	 * @param time  current time
+	 * @param limit max number of jobs listed, 0 - no limit
+	 * @return list of jobs or empty list if none found
+	 */
+	List<CronJob> list(long time, int limit);
+
+	/**
+	 * Lists jobs that can run and are not locked, with next run after given time and at or before given end time
+	 *
+	 * @param from time (exclusive)
+	 * @param to   time (inclusive)
+	 * @return list of jobs or empty list if none found
+	 */
+	List<CronJob> listUpcoming(long from, long to);
+
+	/**
+	 * Hands over jobs to be executed at certain time of day as they are read, in no particular order.
+	 * Consumer might be called from different threads at the same time.
+	 *
+	 * @param time     current time
+	 * @param consumer to receive due jobs
+	 */
+	default void forEachDue(long time, Consumer<CronJob> consumer) {
+
+		Assert.notNull(consumer, "Missing consumer!");
+		list(time).forEach(consumer);
+	}
+
+	/**
+	 * Called when a listed due job was not run, but left for next trigger (so it must be listed again)
+	 *
+	 * @param job listed job
+	 */
+	default void skipped(CronJob job) {
+
+	}
+
+	/**
+	 * Lists jobs whose schedule or next run was changed at or after given time
+	 *
+	 * @param since time of change
+	 * @return list of jobs or empty list if none found
+	 */
+	List<CronJob> listModified(long since);
+
 	/**
 	 * Removes job from database completely
 	 *
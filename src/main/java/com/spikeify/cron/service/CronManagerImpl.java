@@ -1,6 +1,7 @@
 package com.spikeify.cron.service;
 
 import com.aerospike.client.AerospikeException;
+import com.aerospike.client.ResultCode;
 import com.spikeify.Spikeify;
 import com.spikeify.SpikeifyService;
 import com.spikeify.cron.data.CronJobUpdater;
@@ -12,20 +13,64 @@ import com.spikeify.cron.utils.Assert;
 import com.spikeify.cron.utils.StringUtils;
 
 import java.net.HttpURLConnection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class CronManagerImpl implements CronManager {
+public class CronManagerImpl implements CronManager, AutoCloseable {
 
 	private static final Logger log = LoggerFactory.getLogger(CronManagerImpl.class);
 
+	/**
+	 * how often jobs without due time are looked for
+	 */
+	private static final long SWEEP_INTERVAL = 60 * 1000L; // 1 minute
+
+	/**
+	 * max number of due times kept to split next query by
+	 */
+	private static final int MAX_SAMPLE = 1024;
+
 	private final Spikeify sfy;
 
+	private final int queryThreads;
+
+	private final ExecutorService queryWorkers;
+
+	private volatile long lastSweep;
+
+	/**
+	 * age (time - due time) of jobs found by last due query, ascending ... next query is split so each part gets about the same number of jobs
+	 */
+	private volatile long[] dueAges = new long[0];
+
 	public CronManagerImpl(Spikeify spikeify) {
 
+		this(spikeify, 1);
+	}
+
+	/**
+	 * @param spikeify     to read / store jobs
+	 * @param queryThreads number of due time ranges queried in parallel, 1 - single query
+	 */
+	public CronManagerImpl(Spikeify spikeify, int queryThreads) {
+
 		Assert.notNull(spikeify, "Missing spikeify!");
+		Assert.isTrue(queryThreads > 0, "Query threads must be > 0, but was: " + queryThreads + "!");
+
 		sfy = spikeify;
+		this.queryThreads = queryThreads;
+		queryWorkers = queryThreads > 1 ? Executors.newFixedThreadPool(queryThreads, threads("cron-query-")) : null;
 
 		// register indexes for CronJob
 		SpikeifyService.register(CronJob.class);
@@ -45,7 +90,7 @@ public class CronManagerImpl implements CronManager {
 			return newJob;
 		}
 		catch (AerospikeException e) {
-			log.error("Failed to create cron job: " + newJob, e);
+			log.error("Failed to create cron job: {}", newJob, e);
 			throw new CronJobException("Failed to create cron job: " + newJob, HttpURLConnection.HTTP_BAD_REQUEST);
 		}
 	}
@@ -68,11 +113,40 @@ public class CronManagerImpl implements CronManager {
 			});
 		}
 		catch (AerospikeException e) {
-			log.error("Failed to update cron job: " + job, e);
+			log.error("Failed to update cron job: {}", job, e);
 			throw new CronJobException("Failed to update cron job: " + job, HttpURLConnection.HTTP_BAD_REQUEST);
 		}
 	}
 
+	@Override
+	public CronJob updateOptimistic(CronJob job, CronJobUpdater updater) throws CronJobException {
+
+		Assert.notNull(job, "Missing cron job to update!");
+		Assert.notNull(updater, "Missing cron job updater!");
+
+		if (job.getGeneration() == 0) {
+			return update(job, updater); // not read from database ... generation unknown
+		}
+
+		updater.update(job);
+
+		try {
+			// job has a generation, so it is written only if record still has the same generation
+			sfy.update(job).now();
+			return job;
+		}
+		catch (AerospikeException e) {
+
+			if (e.getResultCode() != ResultCode.GENERATION_ERROR) {
+				log.error("Failed to update cron job: {}", job, e);
+				throw new CronJobException("Failed to update cron job: " + job, HttpURLConnection.HTTP_BAD_REQUEST);
+			}
+
+			log.debug("Cron job: {} was changed in the meantime, updating fresh copy", job.getId());
+			return update(job, updater);
+		}
+	}
+
 	@Override
 	public CronJob get(String id) throws CronJobException {
 
@@ -109,16 +183,175 @@ public class CronManagerImpl implements CronManager {
 	@Override
 	public List<CronJob> list(long time) {
 
+		return list(time, 0);
+	}
+
+	@Override
+	public List<CronJob> list(long time, int limit) {
+
+		Assert.isTrue(limit >= 0, "Expecting limit >= 0!");
+
+		List<CronJob> list = Collections.synchronizedList(new ArrayList<>());
+		forEachDue(time, list::add);
+
+		list.sort(CronJob.DUE_ORDER);
+		return limit > 0 && list.size() > limit ? new ArrayList<>(list.subList(0, limit)) : list;
+	}
+
+	/**
+	 * Due time range is split into parts queried in parallel (when more query threads are given),
+	 * jobs of each part are handed over as soon as its query completes
+	 */
+	@Override
+	public void forEachDue(long time, Consumer<CronJob> consumer) {
+
 		Assert.isTrue(time >= 0, "Expecting time >= 0!");
+		Assert.notNull(consumer, "Missing consumer!");
+
+		long[][] ranges = split(time);
+		List<Long> dueTimes = Collections.synchronizedList(new ArrayList<>());
 
-		// list jobs that are candidates for running (nextRun is lower than time - is in the past)
-		List<CronJob> list = sfy.query(CronJob.class).filter("nextRun", 0, time).now().toList();
+		if (queryWorkers == null || queryWorkers.isShutdown() || ranges.length == 1) {
+			for (long[] range : ranges) {
+				due(range[0], range[1], dueTimes, consumer);
+			}
+		}
+		else {
+			CompletableFuture<?>[] parts = new CompletableFuture<?>[ranges.length];
+			for (int i = 0; i < ranges.length; i++) {
+				long[] range = ranges[i];
+				parts[i] = CompletableFuture.runAsync(() -> due(range[0], range[1], dueTimes, consumer), queryWorkers);
+			}
+
+			try {
+				CompletableFuture.allOf(parts).join();
+			}
+			catch (CompletionException e) {
+				if (e.getCause() instanceof RuntimeException) {
+					throw (RuntimeException) e.getCause();
+				}
+
+				throw e;
+			}
+		}
 
-		// remove jobs that can't run
-		list.removeIf(job -> !job.run());
+		sample(time, dueTimes);
+
+		// jobs stored without due time (by older version) are found by next run, now and then
+		if (time - lastSweep >= SWEEP_INTERVAL) {
+			lastSweep = time;
+
+			for (CronJob job : sfy.query(CronJob.class).filter("nextRun", 0, time).now().toList()) {
+				if (job.getDueAt() == null && job.run()) {
+					consumer.accept(job);
+				}
+			}
+		}
+	}
+
+	@Override
+	public List<CronJob> listUpcoming(long from, long to) {
+
+		Assert.isTrue(from >= 0, "Expecting time >= 0!");
+		Assert.isTrue(to >= from, "Expecting end time >= start time!");
+
+		List<CronJob> list = sfy.query(CronJob.class).filter("dueAt", from + 1, to).now().toList();
+		list.removeIf(job -> !job.canRun() || job.isLocked());
 		return list;
 	}
 
+	/**
+	 * Hands over jobs with due time in given range that can run
+	 * (locked jobs and jobs that can't run are not due, so they are left out by the index)
+	 *
+	 * @param dueTimes collects due time of each job found
+	 */
+	private void due(long from, long to, List<Long> dueTimes, Consumer<CronJob> consumer) {
+
+		for (CronJob job : sfy.query(CronJob.class).filter("dueAt", from, to).now().toList()) {
+			if (job.getDueAt() != null) {
+				dueTimes.add(job.getDueAt());
+			}
+
+			if (job.run()) {
+				consumer.accept(job);
+			}
+		}
+	}
+
+	/**
+	 * Remembers how due jobs were spread over time (relative to given time), to split next query by
+	 *
+	 * @param time     query was made for
+	 * @param dueTimes due times of jobs found
+	 */
+	void sample(long time, List<Long> dueTimes) {
+
+		if (queryThreads <= 1 || dueTimes.isEmpty()) {
+			return; // nothing learned ... previous split is kept
+		}
+
+		synchronized (dueTimes) {
+			int step = Math.max(1, (dueTimes.size() + MAX_SAMPLE - 1) / MAX_SAMPLE);
+
+			long[] ages = new long[(dueTimes.size() + step - 1) / step];
+			for (int i = 0; i < ages.length; i++) {
+				ages[i] = Math.max(0, time - dueTimes.get(i * step));
+			}
+
+			Arrays.sort(ages);
+			dueAges = ages;
+		}
+	}
+
+	/**
+	 * Due jobs usually pile up within the last few seconds, so the range is split by density of the last query (not evenly by time):
+	 * each part covers about the same number of jobs. Jobs sharing the same due time can't be split, so fewer parts might be returned.
+	 *
+	 * @return inclusive due time ranges covering 0 - time, at most one per query thread
+	 */
+	long[][] split(long time) {
+
+		long[] ages = dueAges;
+		int parts = Math.min(queryThreads, ages.length);
+		if (parts <= 1) {
+			return new long[][] {{0, time}};
+		}
+
+		// oldest first ... boundary of each part is due time of its last job
+		List<long[]> ranges = new ArrayList<>(parts);
+		long from = 0;
+		for (int i = parts - 1; i > 0; i--) {
+
+			long to = time - ages[ages.length * i / parts];
+			if (to >= from && to < time) {
+				ranges.add(new long[] {from, to});
+				from = to + 1;
+			}
+		}
+
+		ranges.add(new long[] {from, time});
+		return ranges.toArray(new long[ranges.size()][]);
+	}
+
+	/**
+	 * Stops query threads, further queries run in calling thread
+	 */
+	@Override
+	public void close() {
+
+		if (queryWorkers != null) {
+			queryWorkers.shutdown();
+		}
+	}
+
+	@Override
+	public List<CronJob> listModified(long since) {
+
+		Assert.isTrue(since >= 0, "Expecting time >= 0!");
+		return sfy.query(CronJob.class).filter("lastModified", since, Long.MAX_VALUE).now().toList();
+	}
+
 	@Override
 	public void delete(CronJob job) {
 
@@ -134,7 +367,7 @@ public class CronManagerImpl implements CronManager {
 		CronJob found = findByName(job.name); // find job by name
 
 		if (found == null) { // job doesn't exists ... create new job ...  data
-			log.info("Job not found, creating new job with name: '" + job.name + "'");
+			log.info("Job not found, creating new job with name: '{}'", job.name);
 			found = create(job.name);
 		}
 
@@ -142,4 +375,14 @@ public class CronManagerImpl implements CronManager {
 			update(found, new CronJsonUpdater(job, timeZone));
 		}
 	}
+
+	private static ThreadFactory threads(String prefix) {
+
+		AtomicInteger counter = new AtomicInteger();
+		return runnable -> {
+			Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
 }
@@ -2,8 +2,10 @@ package com.spikeify.cron.service;
 
 import com.spikeify.cron.data.CronExecutorResult;
 import com.spikeify.cron.data.CronJobUpdater;
+import com.spikeify.cron.data.CronProjection;
 import com.spikeify.cron.data.json.CronJobJSON;
 import com.spikeify.cron.entities.CronJob;
+import com.spikeify.cron.entities.enums.ExportFormat;
 import com.spikeify.cron.exceptions.CronJobException;
 
 import java.util.List;
@@ -70,6 +72,26 @@ public interface CronService {
 	 */
 	CronExecutorResult run(CronJob job);
 
+	/**
+	 * Projects upcoming runs of given job, assuming each run is made on time
+	 *
+	 * @param job  to project
+	 * @param from time to project from (including)
+	 * @param to   time to project until (excluding)
+	 * @return times of runs
+	 */
+	long[] project(CronJob job, long from, long to);
+
+	/**
+	 * Projects number of upcoming runs of all jobs in time buckets (for instance runs in each minute of next day)
+	 *
+	 * @param from         time to project from (including)
+	 * @param to           time to project until (excluding)
+	 * @param bucketMillis size of bucket in milliseconds
+	 * @return number of runs in each bucket
+	 */
+	CronProjection project(long from, long to, long bucketMillis);
+
 	/**
 	 * Exports all configured jobs as JSON
 	 *
@@ -78,6 +100,15 @@ public interface CronService {
 	 */
 	List<CronJobJSON> exportJobs(int timeZone);
 
+	/**
+	 * Exports all configured jobs in given format
+	 *
+	 * @param timeZone local time zone to recalculate time info
+	 * @param format   json or binary
+	 * @return encoded list of jobs
+	 */
+	byte[] exportJobs(int timeZone, ExportFormat format);
+
 	/**
 	 * Imports cron jobs from external
 	 *
@@ -88,7 +119,17 @@ public interface CronService {
 	void importJobs(List<CronJobJSON> data, int timeZone) throws CronJobException;
 
 	/**
-	 * Imports jobs from a resource file
+	 * Imports cron jobs exported in given format
+	 *
+	 * @param data     to be imported
+	 * @param format   json or binary
+	 * @param timeZone local time zone to take into account when setting UTC time
+	 * @throws CronJobException in case of invalid data
+	 */
+	void importJobs(byte[] data, ExportFormat format, int timeZone) throws CronJobException;
+
+	/**
+	 * Imports jobs from a resource file (JSON or binary export)
 	 *
 	 * @param resource       to load jobs from
 	 * @param checkTimestamp true check if given resource has changed and is newer that the state in the database, false overwrite
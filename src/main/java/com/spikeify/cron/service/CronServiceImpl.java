@@ -1,40 +1,101 @@
 package com.spikeify.cron.service;
 
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.spikeify.cron.data.CronExecutorResult;
 import com.spikeify.cron.data.CronJobUpdater;
+import com.spikeify.cron.data.CronProjection;
+import com.spikeify.cron.data.DueLockCronUpdater;
 import com.spikeify.cron.data.LastRunUpdater;
 import com.spikeify.cron.data.LockCronUpdater;
+import com.spikeify.cron.data.SkipMissedRunsUpdater;
+import com.spikeify.cron.data.json.CronJobBinary;
 import com.spikeify.cron.data.json.CronJobJSON;
 import com.spikeify.cron.entities.CronJob;
+import com.spikeify.cron.entities.enums.CronJobResult;
+import com.spikeify.cron.entities.enums.ExportFormat;
+import com.spikeify.cron.entities.enums.MisfirePolicy;
 import com.spikeify.cron.exceptions.CronJobException;
+import com.spikeify.cron.metrics.CronMetrics;
+import com.spikeify.cron.metrics.JmxCronMetrics;
 import com.spikeify.cron.utils.Assert;
-import com.spikeify.cron.utils.JsonUtils;
+import com.spikeify.cron.utils.DateTimeUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.management.ManagementFactory;
 import java.net.HttpURLConnection;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Scanner;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 public class CronServiceImpl implements CronService {
 
 	private static final Logger log = LoggerFactory.getLogger(CronServiceImpl.class.getSimpleName());
 	private static final long DELTA = 10 * 1000L; // 10 seconds
 
+	/**
+	 * name of this instance (process id @ host) shown as lock holder
+	 */
+	private static final String INSTANCE = ManagementFactory.getRuntimeMXBean().getName();
+
 	private final CronManager manager;
 	private final CronExecutor executor;
 	private final CronSettings settings;
+	private final CronMetrics metrics;
+
+	/**
+	 * ids of jobs currently running on this instance
+	 */
+	private final Set<String> running = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * ids of jobs read ahead of their next run, waiting to be fired
+	 */
+	private final Set<String> prefetched = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * jobs locked by this instance and being executed (id / job as locked)
+	 */
+	private final ConcurrentMap<String, CronJob> locked = new ConcurrentHashMap<>();
+
+	/**
+	 * number of jobs locked and started by this instance
+	 */
+	private final LongAdder startedJobs = new LongAdder();
+
+	/**
+	 * number of failed runs on this instance
+	 */
+	private final LongAdder failures = new LongAdder();
 
 	public CronServiceImpl(CronManager cronManager,
 						   CronExecutor cronExecutor,
 	                       CronSettings cronSetting) {
 
+		this(cronManager, cronExecutor, cronSetting, JmxCronMetrics.getDefault());
+	}
+
+	public CronServiceImpl(CronManager cronManager,
+						   CronExecutor cronExecutor,
+	                       CronSettings cronSetting,
+	                       CronMetrics cronMetrics) {
+
+		Assert.notNull(cronMetrics, "Missing metrics!");
+
 		manager = cronManager;
+		metrics = cronMetrics;
 		executor = cronExecutor;
 
 		// make sure settings are present ... event if empty
@@ -46,6 +107,11 @@ public class CronServiceImpl implements CronService {
 		}
 	}
 
+	public CronMetrics getMetrics() {
+
+		return metrics;
+	}
+
 	@Override
 	public CronJob create(String name) throws CronJobException {
 
@@ -73,57 +139,403 @@ public class CronServiceImpl implements CronService {
 	@Override
 	public void delete(CronJob job) {
 		manager.delete(job);
+		metrics.deleted(job);
 	}
 
 	@Override
 	public int run() {
 
-		List<CronJob> list = manager.list(System.currentTimeMillis());
+		List<CronJob> list = manager.list(System.currentTimeMillis(), settings.getBatchSize());
 
 		int count = 0;
-		for (CronJob job : list) {
+		AtomicInteger misfires = new AtomicInteger();
 
-			try {
-				// refresh job
-				job = manager.get(job.getId());
+		for (CronJob job : list) {
 
-				// can we run the job?
-				if (job.run()) {
-					// remember time job was started
-					long startTime = job.getNextRun(); // take next run as start time if not smaller than 10s from current time
-					if (startTime <= System.currentTimeMillis() - DELTA) {
-						startTime = System.currentTimeMillis();
+			if (running.add(job.getId())) {
+				try {
+					if (runJob(job, misfires)) {
+						count++;
 					}
+				}
+				finally {
+					running.remove(job.getId());
+				}
+			}
+		}
 
-					// execute
-					// update and lock cron job before executing so other threads will not start the job ( ... )
-					long lockTime = System.nanoTime();
-					job = manager.update(job, new LockCronUpdater(lockTime));
+		return count;
+	}
 
-					if (job.getStartedTime() == lockTime) {
+	/**
+	 * Finds tasks to be executed (run) on given moment and hands them over to given workers without waiting for them to finish.
+	 * Jobs still running on this instance are not dispatched again.
+	 * Without batch size jobs are handed over as soon as they are read (see {@link CronManager#forEachDue(long, java.util.function.Consumer)}).
+	 *
+	 * @param workers to execute jobs
+	 * @return number of jobs dispatched
+	 */
+	public int dispatch(Executor workers) {
 
-						CronExecutorResult result = executor.run(job, settings);
+		Assert.notNull(workers, "Missing workers!");
 
-						// set last run result and calculate next execution and store changes to database
-						manager.update(job, new LastRunUpdater(startTime, result.getJobResult(), result.getMessage()));
-						count++;
-					}
+		long time = System.currentTimeMillis();
+
+		AtomicInteger count = new AtomicInteger();
+		AtomicInteger misfires = new AtomicInteger();
+
+		int batchSize = settings.getBatchSize();
+		if (batchSize > 0) {
+			for (CronJob job : manager.list(time, batchSize)) {
+				if (dispatch(workers, job, misfires)) {
+					count.incrementAndGet();
 				}
 			}
-			catch (CronJobException e) {
-				// should not happen ... but anyhow ... let's catch it
-				log.error("Failed to update cron job: " + job);
+		}
+		else {
+			manager.forEachDue(time, job -> {
+				if (dispatch(workers, job, misfires)) {
+					count.incrementAndGet();
+				}
+			});
+		}
+
+		return count.get();
+	}
+
+	/**
+	 * @return true if dispatched, false if still running from previous dispatch or rejected by workers
+	 */
+	private boolean dispatch(Executor workers, CronJob job, AtomicInteger misfires) {
+
+		String id = job.getId();
+		if (prefetched.contains(id) || !running.add(id)) {
+			return false; // still running from previous dispatch or waiting to be fired
+		}
+
+		try {
+			workers.execute(() -> {
+				try {
+					runJob(job, misfires);
+				}
+				finally {
+					running.remove(id);
+				}
+			});
+
+			return true;
+		}
+		catch (RejectedExecutionException e) {
+			running.remove(id);
+			log.warn("Workers rejected cron job: {}", job);
+			return false;
+		}
+	}
+
+	/**
+	 * Reads jobs with next run within given time from now and schedules them to be locked and run exactly at their next run,
+	 * so they are fired without waiting for the due query. Jobs already prefetched or running on this instance are skipped.
+	 *
+	 * @param scheduler       to wait for next run of jobs
+	 * @param workers         to execute jobs
+	 * @param lookaheadMillis how far ahead jobs are read
+	 * @return number of jobs prefetched
+	 */
+	public int prefetch(ScheduledExecutorService scheduler, Executor workers, long lookaheadMillis) {
+
+		Assert.notNull(scheduler, "Missing scheduler!");
+		Assert.notNull(workers, "Missing workers!");
+		Assert.isTrue(lookaheadMillis > 0, "Lookahead must be > 0, but was: " + lookaheadMillis + "!");
+
+		long now = System.currentTimeMillis();
+
+		int count = 0;
+		for (CronJob job : manager.listUpcoming(now, now + lookaheadMillis)) {
+
+			String id = job.getId();
+			if (running.contains(id) || !prefetched.add(id)) {
+				continue;
+			}
+
+			if (fireAt(scheduler, workers, job)) {
+				count++;
 			}
 		}
 
 		return count;
 	}
 
+	/**
+	 * Forgets prefetched jobs not fired yet (when scheduler was shut down), so they are dispatched as usual
+	 */
+	public void clearPrefetched() {
+
+		prefetched.clear();
+	}
+
+	/**
+	 * @return number of jobs waiting to be fired at their next run
+	 */
+	public int getPrefetchedCount() {
+
+		return prefetched.size();
+	}
+
+	private boolean fireAt(ScheduledExecutorService scheduler, Executor workers, CronJob job) {
+
+		try {
+			long delay = Math.max(0, job.getNextRun() - System.currentTimeMillis());
+			scheduler.schedule(() -> fire(scheduler, workers, job), delay, TimeUnit.MILLISECONDS);
+			return true;
+		}
+		catch (RejectedExecutionException e) {
+			prefetched.remove(job.getId());
+			return false;
+		}
+	}
+
+	private void fire(ScheduledExecutorService scheduler, Executor workers, CronJob job) {
+
+		// scheduler clock might be a bit ahead
+		if (job.getNextRun() > System.currentTimeMillis()) {
+			fireAt(scheduler, workers, job);
+			return;
+		}
+
+		String id = job.getId();
+		boolean free = running.add(id); // marked as running before no longer prefetched, so it is not dispatched in between
+		prefetched.remove(id);
+
+		if (!free) {
+			return; // dispatched in the meantime
+		}
+
+		try {
+			workers.execute(() -> {
+				try {
+					runJob(job, new AtomicInteger(), false);
+				}
+				finally {
+					running.remove(id);
+				}
+			});
+		}
+		catch (RejectedExecutionException e) {
+			running.remove(id);
+			log.warn("Workers rejected cron job: {}", job);
+		}
+	}
+
+	/**
+	 * @return number of jobs currently running on this instance
+	 */
+	public int getRunningCount() {
+
+		return running.size();
+	}
+
+	/**
+	 * @return ids of jobs currently running on this instance
+	 */
+	public List<String> getRunningJobs() {
+
+		return new ArrayList<>(running);
+	}
+
+	/**
+	 * @return jobs locked by this instance and being executed, with lock holder and start time
+	 */
+	public List<String> getLockedJobs() {
+
+		List<String> output = new ArrayList<>();
+		for (CronJob job : locked.values()) {
+			output.add(job.getId() + " [" + job.getName() + "] locked by: " + INSTANCE + ", started: " + DateTimeUtils.formatDateTime(job.getStartedTime()));
+		}
+
+		return output;
+	}
+
+	/**
+	 * @return number of jobs locked and started by this instance (jobs taken by other instances are not counted)
+	 */
+	public long getStartedCount() {
+
+		return startedJobs.sum();
+	}
+
+	/**
+	 * @return number of failed runs on this instance
+	 */
+	public long getFailures() {
+
+		return failures.sum();
+	}
+
+	/**
+	 * Locks, executes and stores result of given job
+	 *
+	 * @param job      to run
+	 * @param misfires number of misfired jobs run in this trigger
+	 * @return true if job was run, false if not due, locked by other instance or skipped
+	 */
+	private boolean runJob(CronJob job, AtomicInteger misfires) {
+
+		return runJob(job, misfires, true);
+	}
+
+	/**
+	 * @param refresh true to read job again, false to lock given copy (if it is stale, fresh copy is read when locking)
+	 */
+	private boolean runJob(CronJob job, AtomicInteger misfires, boolean refresh) {
+
+		CronJob stored = runOnce(job, misfires, refresh);
+		if (stored == null) {
+			return false;
+		}
+
+		// missed runs are replayed one after another in the same trigger, each with its own time (until misfire limit is reached)
+		while (stored != null &&
+			stored.getMisfirePolicy() == MisfirePolicy.fireAll &&
+			stored.run()) {
+
+			stored = runOnce(stored, misfires, false);
+		}
+
+		return true;
+	}
+
+	/**
+	 * @return job with stored run result, null if job was not run
+	 */
+	private CronJob runOnce(CronJob job, AtomicInteger misfires, boolean refresh) {
+
+		try {
+			// refresh job
+			if (refresh) {
+				job = manager.get(job.getId());
+			}
+
+			// can we run the job?
+			if (!job.run()) {
+				return null;
+			}
+
+			// jobs running every few seconds can't be late for more than one interval
+			long delta = DELTA;
+			long interval = job.getIntervalMillis();
+			if (interval > 0 && interval < delta) {
+				delta = interval;
+			}
+
+			// job missed its run(s) ... cron was not triggered in time
+			boolean misfired = job.isMisfired(System.currentTimeMillis(), delta);
+			if (misfired) {
+
+				if (job.getMisfirePolicy() == MisfirePolicy.skip) {
+					log.info("Skipping missed run(s) of: {}", job);
+					manager.update(job, new SkipMissedRunsUpdater());
+					return null;
+				}
+
+				int misfireLimit = settings.getMisfireLimit();
+				if (misfireLimit > 0 && misfires.incrementAndGet() > misfireLimit) {
+					misfires.decrementAndGet();
+					manager.skipped(job);
+					return null; // leave it for next trigger so targets are not overloaded
+				}
+			}
+
+			// remember time job was started
+			long startTime = job.getNextRun(); // take next run as start time if not smaller than delta from current time
+			if (startTime <= System.currentTimeMillis() - delta &&
+				job.getMisfirePolicy() != MisfirePolicy.fireAll) { // each missed run is run with its own time
+				startTime = System.currentTimeMillis();
+			}
+
+			// execute
+			// update and lock cron job before executing so other threads will not start the job ( ... )
+			// job was just read ... lock it in one round trip unless it was changed in the meantime
+			long lockTime = System.nanoTime();
+			long runTimeout = job.getRunTimeout(settings.getConnectTimeout(), settings.getReadTimeout());
+			// job read ahead might have been run or moved in the meantime ... lock it only if still due
+			CronJobUpdater lock = refresh ? new LockCronUpdater(lockTime, runTimeout) : new DueLockCronUpdater(lockTime, runTimeout);
+			job = manager.updateOptimistic(job, lock);
+
+			boolean acquired = job.getStartedTime() == lockTime;
+			metrics.lock(job, acquired);
+
+			if (!acquired) {
+
+				if (misfired && settings.getMisfireLimit() > 0) {
+					misfires.decrementAndGet(); // other instance took it
+				}
+
+				return null;
+			}
+
+			startedJobs.increment();
+			locked.put(job.getId(), job);
+			try {
+				long started = System.currentTimeMillis();
+				metrics.lag(job, started - job.getNextRun());
+
+				CronExecutorResult result = executor.run(job, settings);
+				long duration = System.currentTimeMillis() - started;
+
+				metrics.executed(job, job.getTarget(settings.getRootUrl()), result, duration);
+				if (result.getJobResult() != CronJobResult.ok) {
+					failures.increment();
+				}
+
+				// set last run result, add run to history and calculate next execution and store changes to database
+				return manager.update(job, new LastRunUpdater(startTime, result, started, duration));
+			}
+			finally {
+				locked.remove(job.getId());
+			}
+		}
+		catch (CronJobException e) {
+			// should not happen ... but anyhow ... let's catch it
+			log.error("Failed to update cron job: {}", job, e);
+			return null;
+		}
+	}
+
 	@Override
 	public CronExecutorResult run(CronJob job) {
 
+		Assert.notNull(job, "Missing job to run!");
+
+		// manual run ... job is executed even if not scheduled or disabled
 		String target = job.getTarget(settings.getRootUrl());
-		return executor.execute(target, settings);
+		if (job.getConnectTimeout() == null && job.getReadTimeout() == null) {
+			return executor.execute(target, settings);
+		}
+
+		// job timeouts take precedence over global settings
+		int connectTimeout = job.getConnectTimeout() != null ? job.getConnectTimeout() : settings.getConnectTimeout();
+		int readTimeout = job.getReadTimeout() != null ? job.getReadTimeout() : settings.getReadTimeout();
+
+		return executor.execute(target, settings, connectTimeout, readTimeout);
+	}
+
+	@Override
+	public long[] project(CronJob job, long from, long to) {
+
+		Assert.notNull(job, "Missing job!");
+		Assert.isTrue(from < to, "From time must be before to time!");
+
+		return job.project(from, to);
+	}
+
+	@Override
+	public CronProjection project(long from, long to, long bucketMillis) {
+
+		// each thread fills its own histogram ... merged at the end
+		return list().parallelStream()
+		             .collect(() -> new CronProjection(from, to, bucketMillis),
+		                      (projection, job) -> job.project(from, to, projection::add),
+		                      CronProjection::merge);
 	}
 
 	@Override
@@ -139,6 +551,42 @@ public class CronServiceImpl implements CronService {
 		return output;
 	}
 
+	@Override
+	public byte[] exportJobs(int timeZone, ExportFormat format) {
+
+		Assert.notNull(format, "Missing export format!");
+
+		List<CronJobJSON> jobs = exportJobs(timeZone);
+		if (format == ExportFormat.binary) {
+			return CronJobBinary.write(jobs);
+		}
+
+		return CronJobJSON.toJson(jobs).getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Override
+	public void importJobs(byte[] data, ExportFormat format, int timeZone) throws CronJobException {
+
+		Assert.notNull(data, "Missing jobs to import!");
+		Assert.notNull(format, "Missing export format!");
+
+		importJobs(decode(data, format), timeZone);
+	}
+
+	private static List<CronJobJSON> decode(byte[] data, ExportFormat format) throws CronJobException {
+
+		try {
+			if (format == ExportFormat.binary) {
+				return CronJobBinary.read(data);
+			}
+
+			return CronJobJSON.listFromJson(new String(data, StandardCharsets.UTF_8));
+		}
+		catch (IllegalArgumentException e) {
+			throw new CronJobException("Invalid " + format + " job data: " + e.getMessage(), HttpURLConnection.HTTP_BAD_REQUEST);
+		}
+	}
+
 	@Override
 	public void importJobs(List<CronJobJSON> data, int timeZone) throws CronJobException {
 
@@ -158,8 +606,7 @@ public class CronServiceImpl implements CronService {
 				throw new CronJobException("Missing resource: '" + resource + "'", HttpURLConnection.HTTP_BAD_REQUEST);
 			}
 
-			Scanner s = new Scanner(stream).useDelimiter("\\A");
-			String json = s.hasNext() ? s.next() : "";
+			byte[] data = read(stream);
 
 			long lastModified = 0;
 			if (checkTimestamp) {
@@ -167,7 +614,9 @@ public class CronServiceImpl implements CronService {
 				lastModified = url.openConnection().getLastModified(); // get last modified date of resource
 			}
 
-			List<CronJobJSON> jobs = JsonUtils.fromJson(json, new TypeReference<List<CronJobJSON>>() {});
+			// binary export is recognized by its header
+			ExportFormat format = CronJobBinary.isBinary(data) ? ExportFormat.binary : ExportFormat.json;
+			List<CronJobJSON> jobs = decode(data, format);
 
 			for (CronJobJSON job: jobs) {
 				manager.importJob(job, lastModified, timeZone);
@@ -177,4 +626,19 @@ public class CronServiceImpl implements CronService {
 			throw new CronJobException("Resource: " + resource + ", not found!", HttpURLConnection.HTTP_NOT_FOUND);
 		}
 	}
+
+	private static byte[] read(InputStream stream) throws IOException {
+
+		try (InputStream input = stream) {
+			ByteArrayOutputStream output = new ByteArrayOutputStream();
+			byte[] buffer = new byte[8192];
+
+			int read;
+			while ((read = input.read(buffer)) != -1) {
+				output.write(buffer, 0, read);
+			}
+
+			return output.toByteArray();
+		}
+	}
 }
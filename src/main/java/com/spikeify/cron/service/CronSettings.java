@@ -5,9 +5,45 @@ package com.spikeify.cron.service;
  */
 public interface CronSettings {
 
+	int DEFAULT_CONNECT_TIMEOUT = 10 * 1000; // 10 seconds
+
+	int DEFAULT_READ_TIMEOUT = 30 * 1000; // 30 seconds
+
 	String getRootUrl();
 
 	String getCronUser();
 
 	String getCronPassword();
+
+	/**
+	 * @return time in milliseconds to wait for connection to target, used when job has no own timeout set (0 = no timeout)
+	 */
+	default int getConnectTimeout() {
+
+		return DEFAULT_CONNECT_TIMEOUT;
+	}
+
+	/**
+	 * @return time in milliseconds to wait for target to respond, used when job has no own timeout set (0 = no timeout)
+	 */
+	default int getReadTimeout() {
+
+		return DEFAULT_READ_TIMEOUT;
+	}
+
+	/**
+	 * @return max number of jobs that missed their run(s) to be run in a single cron trigger, 0 = no limit
+	 */
+	default int getMisfireLimit() {
+
+		return 0;
+	}
+
+	/**
+	 * @return max number of due jobs picked up in a single cron trigger (highest priority, most overdue first), 0 = no limit
+	 */
+	default int getBatchSize() {
+
+		return 0;
+	}
 }
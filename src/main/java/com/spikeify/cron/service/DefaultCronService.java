@@ -1,6 +1,7 @@
 package com.spikeify.cron.service;
 
 import com.spikeify.Spikeify;
+import com.spikeify.cron.metrics.CronMetrics;
 
 /**
  * Simplifies cron service initialization
@@ -16,4 +17,9 @@ public class DefaultCronService extends CronServiceImpl {
 
 		super(new CronManagerImpl(spikeify), new CronExecutorImpl(), cronSettings);
 	}
+
+	public DefaultCronService(Spikeify spikeify, CronSettings cronSettings, CronMetrics cronMetrics) {
+
+		super(new CronManagerImpl(spikeify), new CronExecutorImpl(), cronSettings, cronMetrics);
+	}
 }
@@ -1,5 +1,7 @@
 package com.spikeify.cron.service;
 
+import com.spikeify.cron.utils.Assert;
+
 /**
  *
  */
@@ -11,14 +13,44 @@ public class DefaultCronSettings implements CronSettings {
 
 	private final String cronPassword;
 
+	private final int connectTimeout;
+
+	private final int readTimeout;
+
+	private final int misfireLimit;
+
+	private final int batchSize;
+
 	public DefaultCronSettings(String url) {
 		this(url, null, null);
 	}
 
 	public DefaultCronSettings(String url, String username, String password) {
+		this(url, username, password, DEFAULT_CONNECT_TIMEOUT, DEFAULT_READ_TIMEOUT);
+	}
+
+	public DefaultCronSettings(String url, String username, String password, int connectTimeoutMillis, int readTimeoutMillis) {
+		this(url, username, password, connectTimeoutMillis, readTimeoutMillis, 0);
+	}
+
+	public DefaultCronSettings(String url, String username, String password, int connectTimeoutMillis, int readTimeoutMillis, int misfireJobLimit) {
+		this(url, username, password, connectTimeoutMillis, readTimeoutMillis, misfireJobLimit, 0);
+	}
+
+	public DefaultCronSettings(String url, String username, String password, int connectTimeoutMillis, int readTimeoutMillis, int misfireJobLimit, int jobBatchSize) {
+
+		Assert.isTrue(connectTimeoutMillis >= 0, "Connect timeout must be >= 0, but was: " + connectTimeoutMillis + "!");
+		Assert.isTrue(readTimeoutMillis >= 0, "Read timeout must be >= 0, but was: " + readTimeoutMillis + "!");
+		Assert.isTrue(misfireJobLimit >= 0, "Misfire limit must be >= 0, but was: " + misfireJobLimit + "!");
+		Assert.isTrue(jobBatchSize >= 0, "Batch size must be >= 0, but was: " + jobBatchSize + "!");
+
 		rootUrl = url;
 		cronUser = username;
 		cronPassword = password;
+		connectTimeout = connectTimeoutMillis;
+		readTimeout = readTimeoutMillis;
+		misfireLimit = misfireJobLimit;
+		batchSize = jobBatchSize;
 	}
 
 	@Override
@@ -38,4 +70,28 @@ public class DefaultCronSettings implements CronSettings {
 
 		return cronPassword;
 	}
+
+	@Override
+	public int getConnectTimeout() {
+
+		return connectTimeout;
+	}
+
+	@Override
+	public int getReadTimeout() {
+
+		return readTimeout;
+	}
+
+	@Override
+	public int getMisfireLimit() {
+
+		return misfireLimit;
+	}
+
+	@Override
+	public int getBatchSize() {
+
+		return batchSize;
+	}
 }
@@ -0,0 +1,356 @@
+package com.spikeify.cron.service;
+
+import com.spikeify.cron.data.CronJobUpdater;
+import com.spikeify.cron.data.json.CronJobJSON;
+import com.spikeify.cron.entities.CronJob;
+import com.spikeify.cron.exceptions.CronJobException;
+import com.spikeify.cron.index.ScheduleIndex;
+import com.spikeify.cron.index.ScheduleSnapshot;
+import com.spikeify.cron.utils.Assert;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Finds due jobs in an in memory schedule index instead of querying the database on each trigger.
+ * Jobs are indexed by due time, so locked (running) jobs are not read again until their lock expires.
+ * Full job records are read only once they become due.
+ *
+ * Changes made by other instances are pulled periodically (jobs modified since last sync).
+ * Index can be snapshot to local disk, so on restart only jobs changed since the snapshot are read
+ * instead of scanning all jobs.
+ */
+public class IndexedCronManager implements CronManager {
+
+	private static final Logger log = LoggerFactory.getLogger(IndexedCronManager.class);
+
+	public static final long DEFAULT_SYNC_INTERVAL = 10 * 1000L; // 10 seconds
+
+	public static final long DEFAULT_SNAPSHOT_INTERVAL = 5 * 60 * 1000L; // 5 minutes
+
+	/**
+	 * changes are pulled with some overlap, as clocks of instances are never exactly the same
+	 */
+	private static final long SYNC_OVERLAP = 10 * 1000L;
+
+	private final CronManager manager;
+
+	private final ScheduleIndex index = new ScheduleIndex();
+
+	private final Path snapshotFile;
+
+	private final long syncInterval;
+
+	private final long snapshotInterval;
+
+	/**
+	 * index is in sync with database up to this time (0 - not loaded)
+	 */
+	private volatile long syncedAt;
+
+	private long snapshotAt;
+
+	public IndexedCronManager(CronManager cronManager) {
+
+		this(cronManager, null);
+	}
+
+	/**
+	 * @param cronManager manager to read / store jobs
+	 * @param snapshot    file to store index snapshot to, null for no snapshots
+	 */
+	public IndexedCronManager(CronManager cronManager, Path snapshot) {
+
+		this(cronManager, snapshot, DEFAULT_SYNC_INTERVAL, DEFAULT_SNAPSHOT_INTERVAL);
+	}
+
+	/**
+	 * @param cronManager    manager to read / store jobs
+	 * @param snapshot       file to store index snapshot to, null for no snapshots
+	 * @param syncMillis     how often changes made by other instances are pulled
+	 * @param snapshotMillis how often snapshot is written
+	 */
+	public IndexedCronManager(CronManager cronManager, Path snapshot, long syncMillis, long snapshotMillis) {
+
+		Assert.notNull(cronManager, "Missing cron manager!");
+		Assert.isTrue(syncMillis > 0, "Sync interval must be > 0, but was: " + syncMillis + "!");
+		Assert.isTrue(snapshotMillis > 0, "Snapshot interval must be > 0, but was: " + snapshotMillis + "!");
+
+		manager = cronManager;
+		snapshotFile = snapshot;
+		syncInterval = syncMillis;
+		snapshotInterval = snapshotMillis;
+	}
+
+	/**
+	 * Loads index from snapshot and reads jobs changed since, or scans all jobs if there is no (valid) snapshot.
+	 * Called on first trigger if not called before.
+	 */
+	public synchronized void load() {
+
+		long start = System.currentTimeMillis();
+
+		ScheduleSnapshot snapshot = readSnapshot();
+		if (snapshot != null) {
+			index.load(snapshot);
+			reconcile(manager.listModified(Math.max(0, snapshot.getTakenAt() - SYNC_OVERLAP)));
+			snapshotAt = start;
+		}
+		else {
+			index.clear();
+			reconcile(manager.list());
+		}
+
+		syncedAt = start;
+		log.info("Loaded schedule index of {} jobs in {} ms (from snapshot: {})", index.size(), System.currentTimeMillis() - start, snapshot != null);
+	}
+
+	/**
+	 * Pulls changes made since last sync
+	 */
+	public synchronized void sync() {
+
+		if (syncedAt == 0) {
+			load();
+			return;
+		}
+
+		long start = System.currentTimeMillis();
+		reconcile(manager.listModified(Math.max(0, syncedAt - SYNC_OVERLAP)));
+		syncedAt = start;
+	}
+
+	/**
+	 * Writes snapshot of index
+	 *
+	 * @return true if written, false if no snapshot file is given, index is not loaded or writing failed
+	 */
+	public synchronized boolean snapshot() {
+
+		if (snapshotFile == null || syncedAt == 0) {
+			return false;
+		}
+
+		try {
+			index.snapshot(syncedAt).write(snapshotFile);
+			snapshotAt = System.currentTimeMillis();
+			return true;
+		}
+		catch (IOException e) {
+			log.warn("Failed to write schedule snapshot: {}", snapshotFile, e);
+			return false;
+		}
+	}
+
+	/**
+	 * @return number of indexed jobs
+	 */
+	public int size() {
+
+		return index.size();
+	}
+
+	@Override
+	public CronJob create(String name) throws CronJobException {
+
+		return indexed(manager.create(name));
+	}
+
+	@Override
+	public CronJob update(CronJob job, CronJobUpdater updater) throws CronJobException {
+
+		return indexed(manager.update(job, updater));
+	}
+
+	@Override
+	public CronJob updateOptimistic(CronJob job, CronJobUpdater updater) throws CronJobException {
+
+		return indexed(manager.updateOptimistic(job, updater));
+	}
+
+	@Override
+	public CronJob get(String id) throws CronJobException {
+
+		return manager.get(id);
+	}
+
+	@Override
+	public CronJob find(String id) {
+
+		return manager.find(id);
+	}
+
+	@Override
+	public CronJob findByName(String name) {
+
+		return manager.findByName(name);
+	}
+
+	@Override
+	public List<CronJob> list() {
+
+		return manager.list();
+	}
+
+	@Override
+	public List<CronJob> list(long time) {
+
+		return list(time, 0);
+	}
+
+	/**
+	 * Only as many records as needed to fill the limit are read, ids come from index already in due order
+	 */
+	@Override
+	public List<CronJob> list(long time, int limit) {
+
+		Assert.isTrue(time >= 0, "Expecting time >= 0!");
+		Assert.isTrue(limit >= 0, "Expecting limit >= 0!");
+
+		maintain();
+
+		List<CronJob> output = new ArrayList<>();
+		for (String id : index.due(time)) {
+
+			if (limit > 0 && output.size() >= limit) {
+				break;
+			}
+
+			CronJob job = manager.find(id);
+			if (job == null) {
+				index.remove(id); // deleted by other instance
+				continue;
+			}
+
+			// index might be behind ... record tells the truth
+			indexed(job);
+
+			if (job.run()) {
+				output.add(job);
+			}
+		}
+
+		// indexed priority or due time might have been stale
+		output.sort(CronJob.DUE_ORDER);
+		return output;
+	}
+
+	@Override
+	public List<CronJob> listUpcoming(long from, long to) {
+
+		Assert.isTrue(from >= 0, "Expecting time >= 0!");
+		Assert.isTrue(to >= from, "Expecting end time >= start time!");
+
+		maintain();
+
+		List<CronJob> output = new ArrayList<>();
+		for (String id : index.due(to)) {
+
+			if (index.getDueAt(id) <= from) {
+				continue;
+			}
+
+			CronJob job = manager.find(id);
+			if (job == null) {
+				index.remove(id);
+				continue;
+			}
+
+			indexed(job);
+
+			if (job.canRun() && !job.isLocked() && job.getNextRun() > from && job.getNextRun() <= to) {
+				output.add(job);
+			}
+		}
+
+		return output;
+	}
+
+	@Override
+	public List<CronJob> listModified(long since) {
+
+		return manager.listModified(since);
+	}
+
+	@Override
+	public void delete(CronJob job) {
+
+		manager.delete(job);
+
+		if (job != null && job.getId() != null) {
+			index.remove(job.getId());
+		}
+	}
+
+	@Override
+	public void importJob(CronJobJSON job, long lastModified, int timeZone) throws CronJobException {
+
+		manager.importJob(job, lastModified, timeZone);
+
+		CronJob imported = manager.findByName(job.name);
+		if (imported != null) {
+			indexed(imported);
+		}
+	}
+
+	/**
+	 * syncs and writes snapshots when due
+	 */
+	private synchronized void maintain() {
+
+		long time = System.currentTimeMillis();
+		if (syncedAt == 0 || time - syncedAt >= syncInterval) {
+			sync();
+		}
+
+		if (snapshotFile != null && time - snapshotAt >= snapshotInterval) {
+			snapshot();
+		}
+	}
+
+	private void reconcile(List<CronJob> jobs) {
+
+		for (CronJob job : jobs) {
+			if (job.getGeneration() != index.getGeneration(job.getId())) {
+				indexed(job);
+			}
+		}
+	}
+
+	/**
+	 * Jobs that can't run are not indexed, making them runnable changes them (and their modification time) so they are pulled in on next sync
+	 */
+	private CronJob indexed(CronJob job) {
+
+		if (job.canRun()) {
+			// jobs stored without due time (by older version) are indexed by next run
+			long dueAt = job.getDueAt() != null ? job.getDueAt() : job.getNextRun();
+			index.put(job.getId(), dueAt, job.getGeneration(), job.getPriority());
+		}
+		else {
+			index.remove(job.getId());
+		}
+
+		return job;
+	}
+
+	private ScheduleSnapshot readSnapshot() {
+
+		if (snapshotFile == null || !Files.exists(snapshotFile)) {
+			return null;
+		}
+
+		try {
+			return ScheduleSnapshot.read(snapshotFile);
+		}
+		catch (IOException e) {
+			log.warn("Failed to read schedule snapshot: {}, scanning all jobs", snapshotFile, e);
+			return null;
+		}
+	}
+}
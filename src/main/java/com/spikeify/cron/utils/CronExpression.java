@@ -0,0 +1,424 @@
+package com.spikeify.cron.utils;
+
+import java.time.LocalDate;
+import java.time.Year;
+import java.time.zone.ZoneRules;
+import java.util.Locale;
+
+/**
+ * Standard cron expression compiled into bit sets for fast next run lookup.
+ * Supports 5 fields: minute hour day-of-month month day-of-week,
+ * or 6 fields with leading second: second minute hour day-of-month month day-of-week.
+ *
+ * Each field accepts: * ? number, range (1-5), list (1,3,5), step (*&#47;15, 10-30/5) and
+ * names for months (JAN-DEC) and days of week (SUN-SAT, 0 or 7 = Sunday).
+ * Macros @yearly, @annually, @monthly, @weekly, @daily, @midnight and @hourly are also supported.
+ *
+ * When both day-of-month and day-of-week are restricted, a day matching either of them is accepted (as in standard cron).
+ * A field is not restricted when it matches all values, however it is written (*, ?, *&#47;1, 1-31 ...).
+ */
+public final class CronExpression {
+
+	private static final long SECONDS_IN_DAY = 24L * 60L * 60L;
+
+	/**
+	 * max days to search for next run (covers leap years as 29th of February)
+	 */
+	private static final int MAX_SEARCH_DAYS = 8 * 366;
+
+	private static final String[] MONTHS = {"JAN", "FEB", "MAR", "APR", "MAY", "JUN", "JUL", "AUG", "SEP", "OCT", "NOV", "DEC"};
+
+	private static final String[] DAYS = {"SUN", "MON", "TUE", "WED", "THU", "FRI", "SAT"};
+
+	private static final int ALL_DAYS_OF_MONTH = -2; // bits 1 - 31
+
+	private static final int ALL_DAYS_OF_WEEK = 0x7F; // bits 0 - 6
+
+	private final String expression;
+
+	private final long seconds;     // bits 0 - 59
+
+	private final long minutes;     // bits 0 - 59
+
+	private final int hours;        // bits 0 - 23
+
+	private final int daysOfMonth;  // bits 1 - 31
+
+	private final int months;       // bits 1 - 12
+
+	private final int daysOfWeek;   // bits 0 - 6, 0 = Sunday
+
+	private final boolean anyDayOfMonth;
+
+	private final boolean anyDayOfWeek;
+
+	private CronExpression(String value) {
+
+		Assert.notNullOrEmptyTrimmed(value, "Missing cron expression!");
+
+		expression = StringUtils.trimDoubleSpaces(value);
+
+		String[] fields = getMacro(expression).split(" ");
+		Assert.isTrue(fields.length == 5 || fields.length == 6, "Expected cron expression with 5 or 6 fields, but got: '" + expression + "'");
+
+		int index = 0;
+		seconds = fields.length == 6 ? parse(fields[index++], 0, 59, null) : 1L;
+		minutes = parse(fields[index++], 0, 59, null);
+		hours = (int) parse(fields[index++], 0, 23, null);
+
+		daysOfMonth = (int) parse(fields[index++], 1, 31, null);
+		months = (int) parse(fields[index++], 1, 12, MONTHS);
+
+		long days = parse(fields[index], 0, 7, DAYS);
+		if ((days & (1L << 7)) != 0) { // 7 = Sunday
+			days = (days | 1L) & ~(1L << 7);
+		}
+
+		daysOfWeek = (int) days;
+
+		anyDayOfMonth = daysOfMonth == ALL_DAYS_OF_MONTH;
+		anyDayOfWeek = daysOfWeek == ALL_DAYS_OF_WEEK;
+
+		Assert.isTrue(next(0) >= 0, "Cron expression: '" + expression + "', never matches!");
+	}
+
+	/**
+	 * Compiles cron expression
+	 *
+	 * @param expression cron expression
+	 * @return compiled expression
+	 * @throws IllegalArgumentException in case of invalid expression
+	 */
+	public static CronExpression parse(String expression) {
+
+		return new CronExpression(expression);
+	}
+
+	public String getExpression() {
+
+		return expression;
+	}
+
+	/**
+	 * Finds next run time
+	 *
+	 * @param time to search from (UTC)
+	 * @return time of next run strictly after given time (UTC) or -1 if expression never matches
+	 */
+	public long next(long time) {
+
+		return next(time, 0);
+	}
+
+	/**
+	 * Finds next run time with expression evaluated in time zone with given offset
+	 *
+	 * @param time         to search from (UTC)
+	 * @param offsetMillis offset of time zone from UTC
+	 * @return time of next run strictly after given time (UTC) or -1 if expression never matches
+	 */
+	public long next(long time, long offsetMillis) {
+
+		// continue with next second
+		long second = Math.floorDiv(time + offsetMillis, 1000L) + 1;
+
+		long day = Math.floorDiv(second, SECONDS_IN_DAY);
+		int secondOfDay = (int) Math.floorMod(second, SECONDS_IN_DAY);
+
+		int hour = secondOfDay / 3600;
+		int minute = (secondOfDay / 60) % 60;
+		int sec = secondOfDay % 60;
+
+		long lastDay = day + MAX_SEARCH_DAYS;
+
+		// date of day being checked ... moved forward along with day
+		LocalDate start = LocalDate.ofEpochDay(day);
+		int year = start.getYear();
+		int month = start.getMonthValue();
+		int dayOfMonth = start.getDayOfMonth();
+		int monthLength = start.lengthOfMonth();
+		long dateDay = day;
+
+		while (day <= lastDay) {
+
+			if (dateDay != day) {
+				dayOfMonth += (int) (day - dateDay);
+				dateDay = day;
+
+				while (dayOfMonth > monthLength) {
+					dayOfMonth -= monthLength;
+					if (++month > 12) {
+						month = 1;
+						year++;
+					}
+
+					monthLength = getMonthLength(year, month);
+				}
+			}
+
+			if (!isSet(months, month)) {
+				// move to first day of next month
+				day = day - dayOfMonth + monthLength + 1;
+				hour = minute = sec = 0;
+				continue;
+			}
+
+			if (!matchesDay(dayOfMonth, (int) Math.floorMod(day + 4, 7L))) { // 1.1.1970 was Thursday
+				day++;
+				hour = minute = sec = 0;
+				continue;
+			}
+
+			int nextHour = nextBit(hours, hour);
+			if (nextHour < 0) {
+				day++;
+				hour = minute = sec = 0;
+				continue;
+			}
+
+			if (nextHour != hour) {
+				hour = nextHour;
+				minute = sec = 0;
+			}
+
+			int nextMinute = nextBit(minutes, minute);
+			if (nextMinute < 0) {
+				hour++;
+				minute = sec = 0;
+				if (hour > 23) {
+					day++;
+					hour = 0;
+				}
+				continue;
+			}
+
+			if (nextMinute != minute) {
+				minute = nextMinute;
+				sec = 0;
+			}
+
+			int nextSecond = nextBit(seconds, sec);
+			if (nextSecond < 0) {
+				minute++;
+				sec = 0;
+				if (minute > 59) {
+					hour++;
+					minute = 0;
+					if (hour > 23) {
+						day++;
+						hour = 0;
+					}
+				}
+				continue;
+			}
+
+			long found = day * SECONDS_IN_DAY + hour * 3600L + minute * 60L + nextSecond;
+			return found * 1000L - offsetMillis;
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Finds next run time with expression evaluated in given time zone (daylight saving time aware).
+	 * Run time falling into a DST gap is moved forward by the length of the gap,
+	 * run time repeated in a DST overlap is run only once.
+	 *
+	 * @param time  to search from (UTC)
+	 * @param rules time zone rules, null for UTC
+	 * @return time of next run strictly after given time (UTC) or -1 if expression never matches
+	 */
+	public long next(long time, ZoneRules rules) {
+
+		if (rules == null) {
+			return next(time, 0);
+		}
+
+		// search on wall clock
+		long offset = DateTimeUtils.getOffset(time, rules);
+		long next = next(time + offset, 0);
+		if (next < 0) {
+			return next;
+		}
+
+		long found = DateTimeUtils.toUtcTime(next, rules);
+		if (found <= time) {
+			// in second pass of DST overlap ... stay with current offset
+			found = next - offset;
+		}
+
+		return found;
+	}
+
+	private boolean matchesDay(int dayOfMonth, int dayOfWeek) {
+
+		boolean monthDay = isSet(daysOfMonth, dayOfMonth);
+		boolean weekDay = isSet(daysOfWeek, dayOfWeek);
+
+		if (anyDayOfMonth || anyDayOfWeek) {
+			return monthDay && weekDay;
+		}
+
+		return monthDay || weekDay;
+	}
+
+	private static int getMonthLength(int year, int month) {
+
+		switch (month) {
+			case 2:
+				return Year.isLeap(year) ? 29 : 28;
+
+			case 4:
+			case 6:
+			case 9:
+			case 11:
+				return 30;
+
+			default:
+				return 31;
+		}
+	}
+
+	private static boolean isSet(long bits, int index) {
+
+		return (bits & (1L << index)) != 0;
+	}
+
+	/**
+	 * @param bits to search
+	 * @param from starting index (including)
+	 * @return index of first set bit from given index or -1 if none
+	 */
+	private static int nextBit(long bits, int from) {
+
+		long masked = bits & (-1L << from);
+		return masked == 0 ? -1 : Long.numberOfTrailingZeros(masked);
+	}
+
+	private static boolean isAny(String field) {
+
+		return "*".equals(field) || "?".equals(field);
+	}
+
+	private static String getMacro(String value) {
+
+		switch (value.toLowerCase(Locale.ENGLISH)) {
+			case "@yearly":
+			case "@annually":
+				return "0 0 1 1 *";
+
+			case "@monthly":
+				return "0 0 1 * *";
+
+			case "@weekly":
+				return "0 0 * * 0";
+
+			case "@daily":
+			case "@midnight":
+				return "0 0 * * *";
+
+			case "@hourly":
+				return "0 * * * *";
+
+			default:
+				return value;
+		}
+	}
+
+	private static long parse(String field, int min, int max, String[] names) {
+
+		long bits = 0;
+
+		for (String part : field.split(",")) {
+
+			Assert.isTrue(part.length() > 0, "Invalid cron field: '" + field + "'");
+
+			int step = 1;
+			int slash = part.indexOf('/');
+			if (slash >= 0) {
+				step = getNumber(part.substring(slash + 1), 1, max, null, field);
+				part = part.substring(0, slash);
+			}
+
+			int from;
+			int to;
+
+			if (isAny(part)) {
+				from = min;
+				to = max;
+			}
+			else {
+				int dash = part.indexOf('-');
+				if (dash > 0) {
+					from = getNumber(part.substring(0, dash), min, max, names, field);
+					to = getNumber(part.substring(dash + 1), min, max, names, field);
+				}
+				else {
+					from = getNumber(part, min, max, names, field);
+					to = slash >= 0 ? max : from; // 10/5 ... from 10 to max every 5
+				}
+			}
+
+			Assert.isTrue(from <= to, "Invalid range in cron field: '" + field + "'");
+
+			for (int i = from; i <= to; i += step) {
+				bits |= 1L << i;
+			}
+		}
+
+		return bits;
+	}
+
+	private static int getNumber(String value, int min, int max, String[] names, String field) {
+
+		if (names != null) {
+			for (int i = 0; i < names.length; i++) {
+				if (names[i].equalsIgnoreCase(value)) {
+					return names == MONTHS ? i + 1 : i;
+				}
+			}
+		}
+
+		try {
+			int number = Integer.parseInt(value);
+			Assert.isTrue(number >= min && number <= max, "Expected: " + min + " - " + max + ", but was: " + number + " in cron field: '" + field + "'");
+			return number;
+		}
+		catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Invalid value: '" + value + "' in cron field: '" + field + "'");
+		}
+	}
+
+	@Override
+	public boolean equals(Object o) {
+
+		if (o == this) { return true; }
+
+		if (!(o instanceof CronExpression)) { return false; }
+
+		CronExpression compare = (CronExpression) o;
+		return seconds == compare.seconds &&
+			minutes == compare.minutes &&
+			hours == compare.hours &&
+			daysOfMonth == compare.daysOfMonth &&
+			months == compare.months &&
+			daysOfWeek == compare.daysOfWeek;
+	}
+
+	@Override
+	public int hashCode() {
+
+		int result = Long.hashCode(seconds);
+		result = 31 * result + Long.hashCode(minutes);
+		result = 31 * result + hours;
+		result = 31 * result + daysOfMonth;
+		result = 31 * result + months;
+		return 31 * result + daysOfWeek;
+	}
+
+	@Override
+	public String toString() {
+
+		return expression;
+	}
+}
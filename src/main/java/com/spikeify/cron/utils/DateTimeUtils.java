@@ -1,8 +1,19 @@
 package com.spikeify.cron.utils;
 
 import java.text.SimpleDateFormat;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
 import java.util.Calendar;
+import java.util.List;
 import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public final class DateTimeUtils {
 
@@ -10,6 +21,18 @@ public final class DateTimeUtils {
 		// hiding constructor
 	}
 
+	/**
+	 * zone rules by IANA time zone id
+	 */
+	private static final ConcurrentMap<String, ZoneRules> ZONE_RULES = new ConcurrentHashMap<>();
+
+	/**
+	 * immutable (thread safe) yyyy-MM-dd HH:mm formatters by hour offset
+	 */
+	private static final ConcurrentMap<Integer, DateTimeFormatter> MINUTE_FORMATS = new ConcurrentHashMap<>();
+
+	private static final DateTimeFormatter MINUTE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
 	private static ThreadLocal<SimpleDateFormat> simpleDateFormatThreadLocal = new ThreadLocal<SimpleDateFormat>() {
 		@Override
 		protected SimpleDateFormat initialValue() {
@@ -120,4 +143,106 @@ public final class DateTimeUtils {
 
 		return hour;
 	}
+
+	/**
+	 * @param time     UTC time
+	 * @param timezone hours from UTC
+	 * @return time formatted as yyyy-MM-dd HH:mm in given time zone
+	 */
+	public static String formatMinutes(long time, int timezone) {
+
+		DateTimeFormatter format = MINUTE_FORMATS.computeIfAbsent(timezone, hours -> MINUTE_FORMAT.withZone(ZoneOffset.ofHours(hours)));
+		return format.format(Instant.ofEpochMilli(time));
+	}
+
+	/**
+	 * @param zoneId IANA time zone id, for instance: Europe/Ljubljana
+	 * @return time zone
+	 * @throws IllegalArgumentException in case of unknown time zone
+	 */
+	public static ZoneId getZoneId(String zoneId) {
+
+		Assert.notNullOrEmptyTrimmed(zoneId, "Missing time zone!");
+
+		try {
+			return ZoneId.of(zoneId);
+		}
+		catch (DateTimeException e) {
+			throw new IllegalArgumentException("Unknown time zone: '" + zoneId + "'!");
+		}
+	}
+
+	/**
+	 * Resolves IANA time zone (rules are cached, so time zone is resolved only once)
+	 *
+	 * @param zoneId IANA time zone id, for instance: Europe/Ljubljana
+	 * @return zone rules
+	 * @throws IllegalArgumentException in case of unknown time zone
+	 */
+	public static ZoneRules getZoneRules(String zoneId) {
+
+		Assert.notNullOrEmptyTrimmed(zoneId, "Missing time zone!");
+
+		ZoneRules rules = ZONE_RULES.get(zoneId);
+		if (rules != null) {
+			return rules;
+		}
+
+		rules = getZoneId(zoneId).getRules();
+		ZONE_RULES.putIfAbsent(zoneId, rules);
+		return rules;
+	}
+
+	/**
+	 * @param time  UTC time
+	 * @param rules time zone rules
+	 * @return offset of time zone from UTC in milliseconds at given time
+	 */
+	public static long getOffset(long time, ZoneRules rules) {
+
+		if (rules.isFixedOffset()) {
+			return rules.getOffset(Instant.EPOCH).getTotalSeconds() * 1000L;
+		}
+
+		return rules.getOffset(Instant.ofEpochMilli(time)).getTotalSeconds() * 1000L;
+	}
+
+	/**
+	 * @param time  UTC time
+	 * @param rules time zone rules
+	 * @return wall clock time in given time zone (as milliseconds from 1.1.1970 00:00)
+	 */
+	public static long toLocalTime(long time, ZoneRules rules) {
+
+		return time + getOffset(time, rules);
+	}
+
+	/**
+	 * Converts wall clock time back to UTC.
+	 * Time in a DST gap is moved forward by the length of the gap,
+	 * of ambiguous times in a DST overlap the earlier one is taken.
+	 *
+	 * @param localTime wall clock time in given time zone (as milliseconds from 1.1.1970 00:00)
+	 * @param rules     time zone rules
+	 * @return UTC time
+	 */
+	public static long toUtcTime(long localTime, ZoneRules rules) {
+
+		if (rules.isFixedOffset()) {
+			return localTime - getOffset(localTime, rules);
+		}
+
+		LocalDateTime local = LocalDateTime.ofEpochSecond(Math.floorDiv(localTime, 1000L),
+		                                                  (int) Math.floorMod(localTime, 1000L) * 1_000_000,
+		                                                  ZoneOffset.UTC);
+
+		List<ZoneOffset> offsets = rules.getValidOffsets(local);
+		if (offsets.size() > 0) {
+			return localTime - offsets.get(0).getTotalSeconds() * 1000L;
+		}
+
+		// in gap
+		ZoneOffsetTransition transition = rules.getTransition(local);
+		return localTime - transition.getOffsetBefore().getTotalSeconds() * 1000L;
+	}
 }
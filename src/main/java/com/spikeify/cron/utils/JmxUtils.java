@@ -0,0 +1,68 @@
+package com.spikeify.cron.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+public final class JmxUtils {
+
+	private static final Logger log = LoggerFactory.getLogger(JmxUtils.class.getSimpleName());
+
+	private JmxUtils() {
+		// hiding constructor
+	}
+
+	/**
+	 * Registers MBean with platform MBean server
+	 *
+	 * @param mbean      to register
+	 * @param objectName name to register under
+	 * @return true if registered, false if name is taken or registration failed
+	 */
+	public static boolean register(Object mbean, String objectName) {
+
+		Assert.notNull(mbean, "Missing MBean!");
+		Assert.notNullOrEmptyTrimmed(objectName, "Missing object name!");
+
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName name = new ObjectName(objectName);
+
+			if (server.isRegistered(name)) {
+				log.warn("MBean: {} is already registered!", objectName);
+				return false;
+			}
+
+			server.registerMBean(mbean, name);
+			return true;
+		}
+		catch (JMException e) {
+			log.warn("Failed to register MBean: {}, {}", objectName, e.getMessage());
+			return false;
+		}
+	}
+
+	/**
+	 * Unregisters MBean from platform MBean server
+	 *
+	 * @param objectName name MBean was registered under
+	 */
+	public static void unregister(String objectName) {
+
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName name = new ObjectName(objectName);
+
+			if (server.isRegistered(name)) {
+				server.unregisterMBean(name);
+			}
+		}
+		catch (JMException e) {
+			log.warn("Failed to unregister MBean: {}, {}", objectName, e.getMessage());
+		}
+	}
+}
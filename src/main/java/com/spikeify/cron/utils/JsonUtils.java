@@ -3,8 +3,13 @@ package com.spikeify.cron.utils;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 
 import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public final class JsonUtils {
 
@@ -12,22 +17,27 @@ public final class JsonUtils {
 
 	}
 
-	private static final ThreadLocal<ObjectMapper> tlObjectMapper = new ThreadLocal<ObjectMapper>() {
-		@Override
-		protected ObjectMapper initialValue() {
+	/**
+	 * configured once and shared (thread safe), all conversions and cached readers / writers use it
+	 */
+	private static final ObjectMapper MAPPER = new ObjectMapper();
 
-			return new ObjectMapper();
-		}
-	};
+	/**
+	 * readers and writers are immutable and thread safe, so they are resolved only once per type.
+	 * Only types requested through getReader() / getWriter() (DTO constants) are cached, so caches don't grow with arbitrary types.
+	 */
+	private static final ConcurrentMap<Type, ObjectReader> READERS = new ConcurrentHashMap<>();
+
+	private static final ConcurrentMap<Type, ObjectWriter> WRITERS = new ConcurrentHashMap<>();
 
 	/**
-	 * Returns a thread-local instance of JSON ObjectMapper.
+	 * Returns shared JSON ObjectMapper, should not be reconfigured as cached readers and writers are created from it.
 	 *
 	 * @return ObjectMapper.
 	 */
 	public static ObjectMapper getObjectMapper() {
 
-		return tlObjectMapper.get();
+		return MAPPER;
 	}
 
 	/**
@@ -38,14 +48,109 @@ public final class JsonUtils {
 	 */
 	public static String toJson(Object object) {
 
+		if (object == null) {
+			return "null";
+		}
+
+		ObjectWriter writer = WRITERS.get(object.getClass());
+		return writer != null ? write(object, writer) : toJson(object, MAPPER);
+	}
+
+	/**
+	 * @param valueType class type
+	 * @return cached reader for given type
+	 */
+	public static ObjectReader getReader(Class<?> valueType) {
+
+		if (valueType == null) {
+			throw new IllegalArgumentException("Missing class reference!");
+		}
+
+		return READERS.computeIfAbsent(valueType, type -> MAPPER.readerFor(valueType));
+	}
+
+	/**
+	 * @param reference type reference
+	 * @return cached reader for given type, equal references (for instance List&lt;CronJobJSON&gt;) share the same reader
+	 */
+	public static ObjectReader getReader(TypeReference<?> reference) {
+
+		if (reference == null) {
+			throw new IllegalArgumentException("Missing type reference!");
+		}
+
+		return READERS.computeIfAbsent(reference.getType(), type -> MAPPER.readerFor(reference));
+	}
+
+	/**
+	 * @param valueType class type
+	 * @return cached writer for given type
+	 */
+	public static ObjectWriter getWriter(Class<?> valueType) {
+
+		if (valueType == null) {
+			throw new IllegalArgumentException("Missing class reference!");
+		}
+
+		return WRITERS.computeIfAbsent(valueType, type -> MAPPER.writerFor(valueType));
+	}
+
+	/**
+	 * @param reference type reference
+	 * @return cached writer for given type
+	 */
+	public static ObjectWriter getWriter(TypeReference<?> reference) {
+
+		if (reference == null) {
+			throw new IllegalArgumentException("Missing type reference!");
+		}
+
+		return WRITERS.computeIfAbsent(reference.getType(), type -> MAPPER.writerFor(reference));
+	}
+
+	/**
+	 * Serializes object with given (cached) writer
+	 *
+	 * @param object to be serialized
+	 * @param writer writer for object type
+	 * @return JSON representation of object
+	 */
+	public static String write(Object object, ObjectWriter writer) {
+
+		if (writer == null) {
+			throw new IllegalArgumentException("Missing object writer!");
+		}
+
 		try {
-			return getObjectMapper().writeValueAsString(object);
+			return writer.writeValueAsString(object);
 		}
 		catch (JsonProcessingException e) {
 			throw new IllegalArgumentException("Given Object could not be serialized to JSON. Error: " + e.getMessage());
 		}
 	}
 
+	/**
+	 * De-serializes JSON with given (cached) reader
+	 *
+	 * @param json   JSON representation of object
+	 * @param reader reader for object type
+	 * @param <T>    class type
+	 * @return deserialized object
+	 */
+	public static <T> T read(String json, ObjectReader reader) {
+
+		if (reader == null) {
+			throw new IllegalArgumentException("Missing object reader!");
+		}
+
+		try {
+			return reader.readValue(json);
+		}
+		catch (IOException e) {
+			throw new IllegalArgumentException("Given JSON could not be deserialized. Error: " + e.getMessage());
+		}
+	}
+
 	/**
 	 * Allows JSON serialization with custom mapping
 	 *
@@ -77,12 +182,12 @@ public final class JsonUtils {
 	 */
 	public static <T> T fromJson(String json, Class<T> valueType) {
 
-		try {
-			return getObjectMapper().readValue(json, valueType);
-		}
-		catch (IOException e) {
-			throw new IllegalArgumentException("Given JSON could not be deserialized. Error: " + e.getMessage());
+		if (valueType == null) {
+			throw new IllegalArgumentException("Missing class reference!");
 		}
+
+		ObjectReader reader = READERS.get(valueType);
+		return reader != null ? read(json, reader) : fromJson(json, valueType, MAPPER);
 	}
 
 	/**
@@ -97,12 +202,8 @@ public final class JsonUtils {
 			throw new IllegalArgumentException("Missing type reference!");
 		}
 
-		try {
-			return getObjectMapper().readValue(json, reference);
-		}
-		catch (IOException e) {
-			throw new IllegalArgumentException("Given JSON could not be deserialized. Error: " + e.getMessage());
-		}
+		ObjectReader reader = READERS.get(reference.getType());
+		return reader != null ? read(json, reader) : fromJson(json, reference, MAPPER);
 	}
 
 	/**
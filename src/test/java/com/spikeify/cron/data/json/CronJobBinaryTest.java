@@ -0,0 +1,95 @@
+package com.spikeify.cron.data.json;
+
+import com.spikeify.cron.entities.CronJob;
+import com.spikeify.cron.entities.enums.MisfirePolicy;
+import com.spikeify.cron.entities.enums.RunEvery;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class CronJobBinaryTest {
+
+	@Test
+	public void roundTrip() throws IllegalAccessException {
+
+		CronJob job = new CronJob("one");
+		job.setTarget("http://localhost/\u010d\u0161\u017e");
+		job.setRunInterval(5, RunEvery.minute);
+		job.runFromTo(10, 30, 11, 45);
+		job.setMisfirePolicy(MisfirePolicy.skip);
+		job.setRetry(3, 1000L, 10_000L);
+
+		CronJobJSON full = new CronJobJSON(job);
+		full.disabled = true;
+		full.id = "1";
+		full.lastRun = 1444468800000L;
+		full.cron = "*/15 9-17 * * MON-FRI";
+		full.zone = "Europe/Ljubljana";
+		full.spread = 60_000L;
+		full.connectTimeout = 1000;
+		full.readTimeout = 2000;
+		full.historySize = 10;
+		full.priority = 3;
+
+		CronJobJSON empty = new CronJobJSON();
+
+		List<CronJobJSON> jobs = Arrays.asList(full, empty);
+		byte[] data = CronJobBinary.write(jobs);
+
+		assertTrue(CronJobBinary.isBinary(data));
+
+		List<CronJobJSON> read = CronJobBinary.read(data);
+		assertEquals(2, read.size());
+
+		assertSameFields(full, read.get(0));
+		assertSameFields(empty, read.get(1));
+	}
+
+	@Test
+	public void emptyList() {
+
+		byte[] data = CronJobBinary.write(Collections.emptyList());
+		assertEquals(0, CronJobBinary.read(data).size());
+	}
+
+	@Test
+	public void isBinary() {
+
+		assertFalse(CronJobBinary.isBinary(null));
+		assertFalse(CronJobBinary.isBinary(new byte[0]));
+		assertFalse(CronJobBinary.isBinary("[{\"name\":\"one\"}]".getBytes()));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void truncated() {
+
+		List<CronJobJSON> jobs = new ArrayList<>();
+		jobs.add(new CronJobJSON(new CronJob("one")));
+
+		byte[] data = CronJobBinary.write(jobs);
+
+		try {
+			CronJobBinary.read(Arrays.copyOf(data, data.length - 5));
+		}
+		catch (IllegalArgumentException e) {
+			assertEquals("Invalid length of job: 0!", e.getMessage());
+			throw e;
+		}
+	}
+
+	private static void assertSameFields(CronJobJSON expected, CronJobJSON actual) throws IllegalAccessException {
+
+		for (Field field : CronJobJSON.class.getFields()) {
+			if (!Modifier.isStatic(field.getModifiers())) {
+				assertEquals(field.getName(), field.get(expected), field.get(actual));
+			}
+		}
+	}
+}
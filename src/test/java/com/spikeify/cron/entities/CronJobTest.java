@@ -2,19 +2,31 @@ package com.spikeify.cron.entities;
 
 import com.spikeify.Spikeify;
 import com.spikeify.cron.TestHelper;
+import com.spikeify.cron.data.DueLockCronUpdater;
 import com.spikeify.cron.data.LockCronUpdater;
+import com.spikeify.cron.data.ScheduleUpdater;
 import com.spikeify.cron.entities.enums.CronJobResult;
+import com.spikeify.cron.entities.enums.MisfirePolicy;
 import com.spikeify.cron.entities.enums.RunEvery;
 import com.spikeify.cron.exceptions.CronJobException;
 import com.spikeify.cron.service.*;
+import com.spikeify.cron.utils.DateTimeUtils;
+import org.junit.Assume;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mockito;
 
+import java.lang.management.ManagementFactory;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+
 import static org.junit.Assert.*;
 
 public class CronJobTest {
 
+	private static final long ONE_DAY = 24L * 60L * 60L * 1000L;
+
 	Spikeify sfy;
 	CronManager manager;
 	CronExecutor executor;
@@ -235,6 +247,537 @@ public class CronJobTest {
 		assertEquals("first run: 2035-10-12 18:59, runs every day at: 22:25, target: http://some.url/target, next run: 2035-10-12 22:25", job.getDescription(true, 12));
 	}
 
+	@Test
+	public void dueAtTest() {
+
+		CronJob job = new CronJob("bla");
+		assertNull(job.getDueAt()); // no target or schedule
+
+		job.setRunInterval(1, RunEvery.minute);
+		assertNull(job.getDueAt()); // no target
+
+		job.setTarget("http://some/target");
+		assertEquals(job.getNextRun(), job.getDueAt().longValue());
+
+		// locked ... due once lock expires
+		job.setStarted(System.nanoTime());
+		assertEquals(job.getNextRun() + job.getLockDuration(), job.getDueAt().longValue());
+
+		// unlocked
+		job.setLastRun(System.currentTimeMillis(), CronJobResult.ok, null);
+		assertEquals(job.getNextRun(), job.getDueAt().longValue());
+
+		job.disable();
+		assertNull(job.getDueAt());
+
+		job.enable();
+		assertEquals(job.getNextRun(), job.getDueAt().longValue());
+	}
+
+	@Test
+	public void lockUpdaterTest() {
+
+		CronJob job = new CronJob("bla");
+		job.setTarget("http://some/target");
+		job.setRunInterval(1, RunEvery.hour);
+		job.setFirstRun(System.currentTimeMillis() + ONE_DAY);
+
+		// not due yet ... locked only by plain lock
+		new DueLockCronUpdater(10L, null).update(job);
+		assertEquals(0, job.getStartedTime());
+
+		new LockCronUpdater(10L).update(job);
+		assertEquals(10L, job.getStartedTime());
+
+		// already locked
+		new LockCronUpdater(20L).update(job);
+		assertEquals(10L, job.getStartedTime());
+	}
+
+	@Test
+	public void descriptionChangeTest() {
+
+		CronJob job = new CronJob("bla");
+		job.setTarget("http://some.url/target");
+		job.setFirstRun(System.currentTimeMillis() + ONE_DAY);
+		job.runExactlyAt(10, 25);
+
+		String description = job.getDescription(true, 0);
+		assertEquals(description, job.getDescription(true, 0));
+		assertNotEquals(description, job.getDescription(true, 2));
+		assertNotEquals(description, job.getDescription(false, 0));
+
+		// any change is reflected
+		job.setRetry(3, 1000L, 1000L);
+		assertTrue(job.getDescription(true, 0).endsWith("retries: 3, next run: " + DateTimeUtils.formatMinutes(job.getNextRun(), 0)));
+
+		job.disable();
+		assertTrue(job.getDescription(true, 0).endsWith("next run: disabled"));
+
+		job.enable();
+		job.setTarget("http://other.url/target");
+		assertTrue(job.getDescription(true, 0).contains("target: http://other.url/target"));
+	}
+
+	@Test
+	public void priorityTest() {
+
+		CronJob job = new CronJob("bla");
+		assertEquals(0, job.getPriority());
+
+		// change is marked as modification
+		assertEquals(0, job.getLastModified());
+		job.setPriority(0);
+		assertEquals(0, job.getLastModified());
+		job.setPriority(3);
+		assertTrue(job.getLastModified() > 0);
+
+		job.setTarget("http://some.url/target");
+		job.setFirstRun(System.currentTimeMillis() + ONE_DAY);
+		job.runExactlyAt(10, 25);
+
+		job.setPriority(5);
+		assertEquals(5, job.getPriority());
+		assertTrue(job.getDescription(true, 0).contains(", priority: 5, next run: "));
+
+		job.setPriority(0);
+		assertEquals(0, job.getPriority());
+		assertFalse(job.getDescription(true, 0).contains("priority"));
+
+		// higher priority first, then most overdue
+		long now = System.currentTimeMillis();
+		String[] names = {"late", "early", "important"};
+		long[] firstRuns = {now + 2 * ONE_DAY, now + ONE_DAY, now + 3 * ONE_DAY};
+
+		CronJob[] jobs = new CronJob[names.length];
+		for (int i = 0; i < names.length; i++) {
+			jobs[i] = new CronJob(names[i]);
+			jobs[i].setTarget("http://some.url/" + names[i]);
+			jobs[i].setRunInterval(1, RunEvery.hour);
+			jobs[i].setFirstRun(firstRuns[i]);
+		}
+
+		jobs[2].setPriority(1);
+
+		List<CronJob> list = Arrays.asList(jobs);
+		list.sort(CronJob.DUE_ORDER);
+
+		assertEquals("important", list.get(0).getName());
+		assertEquals("early", list.get(1).getName());
+		assertEquals("late", list.get(2).getName());
+	}
+
+	@Test
+	public void retryFailedRunTest() {
+
+		CronJob job = new CronJob("bla");
+		job.setTarget("http://some/target");
+		job.setRunInterval(1, RunEvery.hour);
+		job.setRetry(2, 10_000L, 15_000L);
+
+		CronJob spiedJob = Mockito.spy(job);
+		Mockito.when(spiedJob.getTime()).thenReturn(1444468800000L); // 10 Oct 2015 09:20:00
+		Mockito.when(spiedJob.getJitter(Mockito.anyLong())).thenReturn(0L);
+
+		// 1st retry ... half of 10s delay
+		spiedJob.setLastRun(1444468800000L, CronJobResult.fail, "failed");
+		assertEquals(1444468805000L, spiedJob.getNextRun());
+		assertEquals(1, spiedJob.getRetryAttempt());
+
+		// 2nd retry ... 20s delay capped to 15s
+		spiedJob.setLastRun(1444468800000L, CronJobResult.fail, "failed");
+		assertEquals(1444468807500L, spiedJob.getNextRun());
+		assertEquals(2, spiedJob.getRetryAttempt());
+
+		// no more retries ... wait for next regular run
+		spiedJob.setLastRun(1444468800000L, CronJobResult.fail, "failed");
+		assertEquals(1444472400000L, spiedJob.getNextRun());
+		assertEquals(0, spiedJob.getRetryAttempt());
+
+		// success resets retries
+		spiedJob.setLastRun(1444468800000L, CronJobResult.fail, "failed");
+		assertEquals(1, spiedJob.getRetryAttempt());
+		spiedJob.setLastRun(1444468800000L, CronJobResult.ok, null);
+		assertEquals(1444472400000L, spiedJob.getNextRun());
+		assertEquals(0, spiedJob.getRetryAttempt());
+
+		assertEquals(spiedJob.getId() + " [bla] runs every hour, target: http://some/target, retries: 2, next run: 2015-10-10 10:20", spiedJob.toString());
+	}
+
+	@Test
+	public void retryDoesNotShiftScheduleTest() {
+
+		CronJob job = new CronJob("bla");
+		job.setTarget("http://some/target");
+		job.setRunInterval(1, RunEvery.hour);
+		job.setRetry(2, 60_000L, 60_000L);
+
+		CronJob spiedJob = Mockito.spy(job);
+		Mockito.when(spiedJob.getJitter(Mockito.anyLong())).thenReturn(0L);
+
+		// regular run at 10:00 fails ... retry 30s later
+		Mockito.when(spiedJob.getTime()).thenReturn(1444471200000L); // 10 Oct 2015 10:00:00
+		spiedJob.setLastRun(1444471200000L, CronJobResult.fail, "failed");
+		assertEquals(1444471230000L, spiedJob.getNextRun());
+
+		// retry succeeds ... next regular run stays at 11:00
+		Mockito.when(spiedJob.getTime()).thenReturn(1444471231000L);
+		spiedJob.setLastRun(1444471230000L, CronJobResult.ok, null);
+		assertEquals(1444471230000L, (long) spiedJob.getLastRun());
+		assertEquals(1444474800000L, spiedJob.getNextRun());
+
+		// ... and so do the following ones
+		Mockito.when(spiedJob.getTime()).thenReturn(1444474801000L);
+		spiedJob.setLastRun(1444474800000L, CronJobResult.ok, null);
+		assertEquals(1444478400000L, spiedJob.getNextRun());
+	}
+
+	@Test
+	public void spreadTest() {
+
+		CronJob job = new CronJob("bla");
+		job.id = "vGyezkyQC7";
+		job.setTarget("http://some/target");
+		job.setRunInterval(1, RunEvery.day);
+		job.setSpread(10L * 60L * 1000L); // 10 minutes
+
+		long offset = job.getSpreadOffset();
+		assertTrue(offset >= 0 && offset < 10L * 60L * 1000L);
+
+		// same offset on each calculation
+		CronJob same = new CronJob("other");
+		same.id = "vGyezkyQC7";
+		same.setSpread(10L * 60L * 1000L);
+		assertEquals(offset, same.getSpreadOffset());
+
+		// other jobs get other offsets
+		CronJob other = new CronJob("other");
+		other.id = "Kq3nP0xZ1a";
+		other.setSpread(10L * 60L * 1000L);
+		assertNotEquals(offset, other.getSpreadOffset());
+
+		// offset is added to run from time
+		CronJob spiedJob = Mockito.spy(job);
+		Mockito.when(spiedJob.getTime()).thenReturn(1444468800000L); // 10 Oct 2015 09:20:00
+		spiedJob.runExactlyAt(10, 30);
+		assertEquals(1444473000000L + offset, spiedJob.getNextRun()); // expected 10 Oct 2015 10:30 + offset
+
+		// interval continues from last run ... offset is not added twice
+		Mockito.when(spiedJob.getTime()).thenReturn(1444473000000L + offset);
+		spiedJob.setLastRun(1444473000000L + offset, CronJobResult.ok, null);
+		assertEquals(1444473000000L + ONE_DAY + offset, spiedJob.getNextRun());
+	}
+
+	@Test
+	public void misfireTest() {
+
+		CronJob job = new CronJob("bla");
+		job.setTarget("http://some/target");
+		job.setRunInterval(1, RunEvery.hour);
+
+		CronJob spiedJob = Mockito.spy(job);
+		Mockito.when(spiedJob.getTime()).thenReturn(1444468800000L); // 10 Oct 2015 09:20:00
+		spiedJob.setLastRun(1444468800000L, CronJobResult.ok, null);
+		assertEquals(1444472400000L, spiedJob.getNextRun()); // 10:20
+		assertFalse(spiedJob.isMisfired(1444472400000L, 10000L));
+
+		// cron was not triggered for three hours ... 10 Oct 2015 12:30:00
+		Mockito.when(spiedJob.getTime()).thenReturn(1444480200000L);
+		assertTrue(spiedJob.isMisfired(1444480200000L, 10000L));
+
+		// 1. fire once ... as soon as possible
+		assertEquals(MisfirePolicy.fireOnce, spiedJob.getMisfirePolicy());
+		spiedJob.calculateNextRun();
+		assertEquals(1444480200000L, spiedJob.getNextRun());
+
+		// 2. fire all ... next missed run
+		spiedJob.setMisfirePolicy(MisfirePolicy.fireAll);
+		assertEquals(1444472400000L, spiedJob.getNextRun()); // 10:20
+		spiedJob.setLastRun(1444472400000L, CronJobResult.ok, null);
+		assertEquals(1444476000000L, spiedJob.getNextRun()); // 11:20
+
+		// 3. skip ... next scheduled run in the future
+		spiedJob.setMisfirePolicy(MisfirePolicy.skip);
+		assertEquals(1444483200000L, spiedJob.getNextRun()); // 13:20
+		assertFalse(spiedJob.isMisfired(1444480200000L, 10000L));
+
+		// skipping missed runs keeps fire all policy
+		spiedJob.setMisfirePolicy(MisfirePolicy.fireAll);
+		spiedJob.skipMissedRuns();
+		assertEquals(1444483200000L, spiedJob.getNextRun()); // 13:20
+		assertEquals(MisfirePolicy.fireAll, spiedJob.getMisfirePolicy());
+	}
+
+	@Test
+	public void cronScheduleTest() {
+
+		CronJob job = new CronJob("bla");
+		job.setTarget("http://some/target");
+		job.setRunInterval(1, RunEvery.hour);
+		job.runFromTo(10, 30, 11, 20);
+
+		CronJob spiedJob = Mockito.spy(job);
+		Mockito.when(spiedJob.getTime()).thenReturn(1444468800000L); // 10 Oct 2015 09:20:00
+
+		spiedJob.runCron("*/15 9-17 * * *");
+		assertTrue(spiedJob.canRun());
+		assertNull(spiedJob.getIntervalUnit());
+		assertNull(spiedJob.getRunFromHour());
+		assertEquals(1444469400000L, spiedJob.getNextRun()); // 09:30
+		assertEquals(spiedJob.getId() + " [bla] runs at: */15 9-17 * * *, target: http://some/target, next run: 2015-10-10 09:30", spiedJob.toString());
+
+		Mockito.when(spiedJob.getTime()).thenReturn(1444469400000L);
+		spiedJob.setLastRun(1444469400000L, CronJobResult.ok, null);
+		assertEquals(1444470300000L, spiedJob.getNextRun()); // 09:45
+
+		// back to interval
+		spiedJob.setRunInterval(1, RunEvery.hour);
+		assertNull(spiedJob.getCron());
+		assertEquals(1444473000000L, spiedJob.getNextRun()); // 10:30 ... last run + 1 hour
+	}
+
+	@Test
+	public void secondIntervalTest() {
+
+		CronJob job = new CronJob("bla");
+		job.setTarget("http://some/target");
+		job.setRunInterval(15, RunEvery.second);
+
+		CronJob spiedJob = Mockito.spy(job);
+		Mockito.when(spiedJob.getTime()).thenReturn(1444468800000L); // 10 Oct 2015 09:20:00
+
+		assertEquals(15_000L, spiedJob.getIntervalMillis());
+		assertEquals(45_000L, spiedJob.getLockDuration()); // default connect + read timeout plus 5s
+
+		spiedJob.setLastRun(1444468800000L, CronJobResult.ok, null);
+		assertEquals(1444468815000L, spiedJob.getNextRun());
+
+		assertEquals(spiedJob.getId() + " [bla] runs every 15th second, target: http://some/target, next run: 2015-10-10 09:20", spiedJob.toString());
+
+		// lock covers time a run may take
+		job.setRunInterval(1, RunEvery.second);
+		assertEquals(45_000L, job.getLockDuration());
+
+		job.setStarted(System.nanoTime(), 2_000L);
+		assertEquals(7_000L, job.getLockDuration());
+
+		job.setStarted(System.nanoTime(), 0L); // no timeout
+		assertEquals(60_000L, job.getLockDuration());
+
+		job.setStarted(System.nanoTime(), 120_000L);
+		assertEquals(125_000L, job.getLockDuration());
+
+		job = new CronJob("other");
+		job.setTarget("http://some/target");
+		job.setRunInterval(5, RunEvery.minute);
+		assertEquals(60_000L, job.getLockDuration());
+
+		job.setTimeouts(1_000, 1_000);
+		assertEquals(2_000L, job.getRunTimeout(10_000, 30_000));
+		job.setTimeouts(null, null);
+		assertEquals(40_000L, job.getRunTimeout(10_000, 30_000));
+		assertEquals(0L, job.getRunTimeout(0, 30_000));
+	}
+
+	@Test
+	public void zoneTest() {
+
+		CronJob job = new CronJob("bla");
+		job.setTarget("http://some/target");
+		new ScheduleUpdater("http://some/target", 9, 0, ZoneId.of("Europe/Ljubljana")).update(job);
+
+		assertEquals("Europe/Ljubljana", job.getZone());
+		assertEquals(9, job.getRunFromHour(2).intValue()); // given in job time zone
+
+		CronJob spiedJob = Mockito.spy(job);
+		Mockito.when(spiedJob.getTime()).thenReturn(1445688000000L); // 24 Oct 2015 12:00 UTC
+
+		// 24.10.2015 09:00 CEST ... next run 25.10.2015 09:00 CET (after switch to winter time)
+		spiedJob.setLastRun(1445670000000L, CronJobResult.ok, null);
+		assertEquals(1445760000000L, spiedJob.getNextRun());
+
+		assertEquals(spiedJob.getId() + " [bla] runs every day at: 09:00 (Europe/Ljubljana), target: http://some/target, next run: 2015-10-25 08:00", spiedJob.toString());
+
+		// cron expression in same time zone
+		spiedJob.runCron("0 9 * * *");
+		spiedJob.setLastRun(1445670000000L, CronJobResult.ok, null);
+		assertEquals(1445760000000L, spiedJob.getNextRun());
+	}
+
+	@Test
+	public void zoneSpringForwardTest() {
+
+		CronJob job = new CronJob("bla");
+		job.setTarget("http://some/target");
+		new ScheduleUpdater("http://some/target", 9, 0, ZoneId.of("Europe/Ljubljana")).update(job);
+
+		CronJob spiedJob = Mockito.spy(job);
+		Mockito.when(spiedJob.getTime()).thenReturn(1585396800000L); // 28 Mar 2020 12:00 UTC
+
+		// 28.3.2020 09:00 CET ... next run 29.3.2020 09:00 CEST (after switch to summer time), not 10:00
+		spiedJob.setLastRun(1585382400000L, CronJobResult.ok, null);
+		assertEquals(1585465200000L, spiedJob.getNextRun());
+
+		// stays at 09:00 on following days
+		Mockito.when(spiedJob.getTime()).thenReturn(1585476000000L); // 29 Mar 2020 10:00 UTC
+		spiedJob.setLastRun(1585465200000L, CronJobResult.ok, null);
+		assertEquals(1585465200000L + ONE_DAY, spiedJob.getNextRun());
+
+		// weekly ... same local time a week later
+		Mockito.when(spiedJob.getTime()).thenReturn(1585396800000L);
+		spiedJob.setRunInterval(1, RunEvery.week);
+		spiedJob.setLastRun(1585382400000L, CronJobResult.ok, null);
+		assertEquals(1585382400000L + 7 * ONE_DAY - 60L * 60L * 1000L, spiedJob.getNextRun());
+
+		// projection follows wall clock too
+		long[] runs = spiedJob.project(1585382400000L, 1585382400000L + 15 * ONE_DAY);
+		assertEquals(2, runs.length);
+		assertEquals(runs[0] + 7 * ONE_DAY, runs[1]);
+	}
+
+	@Test
+	public void projectTest() {
+
+		CronJob job = new CronJob("bla");
+		job.setTarget("http://some/target");
+
+		CronJob spiedJob = Mockito.spy(job);
+		Mockito.when(spiedJob.getTime()).thenReturn(1444468800000L); // 10 Oct 2015 09:20:00
+
+		long from = 1444468800000L;
+		long to = from + ONE_DAY;
+
+		// plain interval
+		spiedJob.setRunInterval(15, RunEvery.minute);
+		long[] runs = spiedJob.project(from, from + 60L * 60L * 1000L);
+		assertEquals(4, runs.length);
+		assertEquals(from, runs[0]);
+		assertEquals(from + 45L * 60L * 1000L, runs[3]);
+
+		// only runs in given time frame are returned
+		runs = spiedJob.project(from + 1, from + 60L * 60L * 1000L);
+		assertEquals(3, runs.length);
+		assertEquals(from + 15L * 60L * 1000L, runs[0]);
+
+		// every hour from 9:00 until 17:00 ... 09:20 - 16:20 and next day at 09:00
+		spiedJob.setRunInterval(1, RunEvery.hour);
+		spiedJob.runFromTo(9, 0, 17, 0);
+		runs = spiedJob.project(from, to);
+		assertEquals(9, runs.length);
+		assertEquals(1444494000000L, runs[7]); // 16:20
+		assertEquals(1444554000000L, runs[8]); // 11 Oct 2015 09:00
+
+		// cron expression ... 12:00, 18:00, 00:00, 06:00
+		spiedJob.runCron("0 */6 * * *");
+		runs = spiedJob.project(from, to);
+		assertEquals(4, runs.length);
+		assertEquals(1444478400000L, runs[0]);
+
+		// job is not changed
+		assertEquals(1444478400000L, spiedJob.getNextRun());
+
+		// disabled job will not run
+		spiedJob.disable();
+		assertEquals(0, spiedJob.project(from, to).length);
+	}
+
+	@Test
+	public void historyTest() {
+
+		CronJob job = new CronJob("bla");
+		assertEquals(CronJob.DEFAULT_HISTORY_SIZE, job.getHistorySize());
+		assertTrue(job.getHistory().isEmpty());
+
+		job.setHistorySize(3);
+
+		long start = 1444468800000L; // 10 Oct 2015 09:20:00
+		for (int i = 0; i < 5; i++) {
+			job.addHistory(start + i * 60_000L, 100L + i, i % 2 == 0 ? CronJobResult.ok : CronJobResult.fail, i % 2 == 0 ? 200 : 500);
+		}
+
+		// only last 3 runs are kept
+		List<CronRun> history = job.getHistory();
+		assertEquals(3, history.size());
+
+		assertEquals(start + 2 * 60_000L, history.get(0).getStart());
+		assertEquals(102L, history.get(0).getDuration());
+		assertEquals(CronJobResult.ok, history.get(0).getResult());
+		assertEquals(200, history.get(0).getHttpStatus());
+
+		assertEquals(start + 3 * 60_000L, history.get(1).getStart());
+		assertEquals(CronJobResult.fail, history.get(1).getResult());
+		assertEquals(500, history.get(1).getHttpStatus());
+
+		assertEquals(start + 4 * 60_000L, history.get(2).getStart());
+
+		// range
+		history = job.getHistory(start + 3 * 60_000L, start + 4 * 60_000L);
+		assertEquals(1, history.size());
+		assertEquals(103L, history.get(0).getDuration());
+
+		// shrink
+		job.setHistorySize(1);
+		history = job.getHistory();
+		assertEquals(1, history.size());
+		assertEquals(start + 4 * 60_000L, history.get(0).getStart());
+
+		// disable
+		job.setHistorySize(0);
+		job.addHistory(start + 5 * 60_000L, 100L, CronJobResult.ok, 200);
+		assertTrue(job.getHistory().isEmpty());
+	}
+
+	@Test
+	public void hashCodeTest() {
+
+		CronJob job = new CronJob("bla");
+		job.setTarget("http://some/target");
+		job.runFromTo(9, 0, 17, 0);
+
+		CronJob compare = new CronJob("bla");
+		compare.setTarget("http://some/target");
+		compare.runFromTo(9, 0, 17, 0);
+		compare.setRunInterval(5, RunEvery.minute); // not part of equals
+
+		assertEquals(job, compare);
+		assertEquals(job.hashCode(), compare.hashCode());
+
+		compare.runFromTo(10, 0, 17, 0);
+		assertNotEquals(job, compare);
+		assertNotEquals(job.hashCode(), compare.hashCode());
+	}
+
+	@Test
+	public void hashCodeAllocationTest() {
+
+		java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+		Assume.assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+
+		CronJob job = new CronJob("bla");
+		job.setTarget("http://some/target");
+		job.runFromTo(9, 0, 17, 0);
+
+		long threadId = Thread.currentThread().getId();
+
+		int hash = 0;
+		for (int i = 0; i < 10_000; i++) { // warm up
+			hash += job.hashCode();
+		}
+
+		// hash code must not allocate (no description is rendered) ... checked per call, so measuring overhead doesn't count
+		int calls = 100_000;
+		long start = threads.getThreadAllocatedBytes(threadId);
+		for (int i = 0; i < calls; i++) {
+			hash += job.hashCode();
+		}
+
+		long allocated = threads.getThreadAllocatedBytes(threadId) - start;
+		assertTrue("Expected no allocation, but was: " + allocated + " bytes (" + hash + ")", allocated / calls == 0);
+	}
+
 	@Test
 	public void testLockedCronJob() {
 
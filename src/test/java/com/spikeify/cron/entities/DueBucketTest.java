@@ -0,0 +1,27 @@
+package com.spikeify.cron.entities;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class DueBucketTest {
+
+	@Test
+	public void bucketOfTime() {
+
+		assertEquals(0, DueBucket.getMinute(59_999L));
+		assertEquals(1, DueBucket.getMinute(60_000L));
+		assertEquals(24_074_480L, DueBucket.getMinute(1444468800000L));
+
+		assertEquals("due-24074480", DueBucket.getKey(24_074_480L));
+		assertEquals("due-24074480", new DueBucket(24_074_480L, 1000L).getKey());
+	}
+
+	@Test
+	public void expiresAfterRetention() {
+
+		assertEquals(120_000L + 1000L, DueBucket.getExpires(1L, 1000L));
+		assertEquals(120_000L + 1000L, new DueBucket(1L, 1000L).getExpires());
+		assertTrue(new DueBucket(1L, 1000L).getJobs().isEmpty());
+	}
+}
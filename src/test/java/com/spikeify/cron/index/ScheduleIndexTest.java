@@ -0,0 +1,237 @@
+package com.spikeify.cron.index;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class ScheduleIndexTest {
+
+	@Test
+	public void putRemoveDue() {
+
+		ScheduleIndex index = new ScheduleIndex();
+		index.put("a", 300L, 1);
+		index.put("b", 100L, 1);
+		index.put("c", 200L, 1);
+		index.put("d", -1L, 1); // disabled ... not indexed
+
+		assertEquals(3, index.size());
+		assertFalse(index.contains("d"));
+
+		// most overdue first
+		assertEquals(Arrays.asList("b", "c"), index.due(200L));
+		assertEquals(Collections.emptyList(), index.due(99L));
+
+		// move
+		index.put("a", 50L, 2);
+		assertEquals(Arrays.asList("a", "b"), index.due(100L));
+		assertEquals(2, index.getGeneration("a"));
+		assertEquals(50L, index.getDueAt("a"));
+
+		assertTrue(index.remove("a"));
+		assertFalse(index.remove("a"));
+		assertEquals(-1L, index.getDueAt("a"));
+		assertEquals(-1, index.getGeneration("a"));
+
+		// disabling removes
+		index.put("b", -1L, 3);
+		assertEquals(1, index.size());
+		assertEquals(Collections.singletonList("c"), index.due(Long.MAX_VALUE));
+	}
+
+	@Test
+	public void dueByPriorityWithLimit() {
+
+		ScheduleIndex index = new ScheduleIndex();
+		index.put("a", 100L, 1);
+		index.put("b", 200L, 1, 5);
+		index.put("c", 50L, 1);
+		index.put("d", 300L, 1, 5);
+		index.put("e", 400L, 1, 9); // not due
+
+		assertEquals(5, index.getPriority("b"));
+		assertEquals(0, index.getPriority("x"));
+
+		assertEquals(Arrays.asList("b", "d", "c", "a"), index.due(300L));
+		assertEquals(Arrays.asList("b", "d"), index.due(300L, 2));
+		assertEquals(Collections.singletonList("b"), index.due(250L, 1));
+
+		// priority lowered
+		index.put("b", 200L, 2, 0);
+		assertEquals(Arrays.asList("d", "c", "a"), index.due(300L, 3));
+	}
+
+	@Test
+	public void dueTiesOrderedById() {
+
+		ScheduleIndex index = new ScheduleIndex();
+		index.put("job-b", 100L, 1);
+		index.put("job-ab", 100L, 1);
+		index.put("job-a", 100L, 1);
+		index.put("job-č", 100L, 1); // multi byte UTF-8
+		index.put("job-c", 100L, 1);
+
+		assertEquals(Arrays.asList("job-a", "job-ab", "job-b", "job-c", "job-č"), index.due(100L));
+		assertEquals(Arrays.asList("job-a", "job-ab"), index.due(100L, 2));
+	}
+
+	@Test
+	public void matchesReferenceMap() {
+
+		ScheduleIndex index = new ScheduleIndex();
+		Map<String, Long> reference = new HashMap<>();
+
+		Random random = new Random(42);
+		for (int i = 0; i < 50_000; i++) {
+
+			String id = "job-" + random.nextInt(2_000);
+			if (random.nextInt(4) == 0) {
+				assertEquals(reference.remove(id) != null, index.remove(id));
+			}
+			else {
+				long nextRun = random.nextInt(10_000);
+				index.put(id, nextRun, i);
+				reference.put(id, nextRun);
+			}
+		}
+
+		assertEquals(reference.size(), index.size());
+
+		for (Map.Entry<String, Long> entry : reference.entrySet()) {
+			assertEquals((long) entry.getValue(), index.getDueAt(entry.getKey()));
+		}
+
+		List<String> due = index.due(5_000L);
+		long expected = reference.values().stream().filter(time -> time <= 5_000L).count();
+		assertEquals(expected, due.size());
+
+		// most overdue first
+		for (int i = 1; i < due.size(); i++) {
+			assertTrue(reference.get(due.get(i - 1)) <= reference.get(due.get(i)));
+		}
+	}
+
+	@Test
+	public void compactMemory() {
+
+		ScheduleIndex index = new ScheduleIndex();
+		int count = 100_000;
+
+		for (int i = 0; i < count; i++) {
+			index.put("job-" + i, 1444468800000L + i, 1);
+		}
+
+		// ids are 9 - 10 bytes long, arrays grow by doubling
+		long perJob = index.getMemoryUsage() / count;
+		assertTrue("Expected less than 100 bytes per job, but was: " + perJob, perJob < 100);
+
+		// removed ids are dropped
+		for (int i = 0; i < count; i += 2) {
+			index.remove("job-" + i);
+		}
+
+		assertEquals(count / 2, index.size());
+		assertEquals(1444468800001L, index.getDueAt("job-1"));
+		assertEquals(-1L, index.getDueAt("job-0"));
+		assertEquals(Arrays.asList("job-1", "job-3"), index.due(1444468800003L));
+	}
+
+	@Test
+	public void snapshotRoundTrip() throws IOException {
+
+		ScheduleIndex index = new ScheduleIndex();
+		for (int i = 0; i < 1000; i++) {
+			index.put("job-" + i, 1444468800000L + i * 1000L, i % 7, i % 3);
+		}
+
+		Path file = Files.createTempFile("schedule", ".snapshot");
+		try {
+			index.snapshot(1444468800000L).write(file);
+
+			ScheduleSnapshot snapshot = ScheduleSnapshot.read(file);
+			assertEquals(1444468800000L, snapshot.getTakenAt());
+			assertEquals(1000, snapshot.size());
+
+			ScheduleIndex loaded = new ScheduleIndex();
+			loaded.load(snapshot);
+
+			assertEquals(1000, loaded.size());
+			assertEquals(index.due(Long.MAX_VALUE), loaded.due(Long.MAX_VALUE));
+
+			for (int i = 0; i < 1000; i++) {
+				assertEquals(index.getDueAt("job-" + i), loaded.getDueAt("job-" + i));
+				assertEquals(i % 7, loaded.getGeneration("job-" + i));
+				assertEquals(i % 3, loaded.getPriority("job-" + i));
+			}
+		}
+		finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void invalidSnapshot() throws IOException {
+
+		Path file = Files.createTempFile("schedule", ".snapshot");
+		try {
+			Files.write(file, "not a snapshot at all".getBytes());
+			ScheduleSnapshot.read(file);
+		}
+		finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void otherVersionSnapshot() throws IOException {
+
+		ScheduleIndex index = new ScheduleIndex();
+		index.put("a", 100L, 1);
+
+		Path file = Files.createTempFile("schedule", ".snapshot");
+		try {
+			index.snapshot(0).write(file);
+
+			// older format ... not read, all jobs are scanned instead
+			byte[] data = Files.readAllBytes(file);
+			data[4] = 1;
+			Files.write(file, data);
+
+			ScheduleSnapshot.read(file);
+		}
+		finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void truncatedSnapshot() throws IOException {
+
+		ScheduleIndex index = new ScheduleIndex();
+		index.put("a", 100L, 1);
+		index.put("b", 200L, 1);
+
+		Path file = Files.createTempFile("schedule", ".snapshot");
+		try {
+			index.snapshot(0).write(file);
+
+			byte[] data = Files.readAllBytes(file);
+			Files.write(file, Arrays.copyOf(data, data.length - 3));
+
+			ScheduleSnapshot.read(file);
+		}
+		finally {
+			Files.deleteIfExists(file);
+		}
+	}
+}
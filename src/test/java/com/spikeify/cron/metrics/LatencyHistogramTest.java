@@ -0,0 +1,133 @@
+package com.spikeify.cron.metrics;
+
+import com.spikeify.cron.data.CronExecutorResult;
+import com.spikeify.cron.entities.CronJob;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LatencyHistogramTest {
+
+	@Test
+	public void bucketsTest() {
+
+		// exact below 32
+		for (long value = 0; value < 32; value++) {
+			assertEquals(value, LatencyHistogram.getHighestValue(LatencyHistogram.getIndex(value)));
+		}
+
+		// buckets are continuous and within 1/16 of value
+		long previous = 31;
+		for (int index = 32; index < 60 * 16; index++) { // up to Long.MAX_VALUE
+
+			long highest = LatencyHistogram.getHighestValue(index);
+			assertEquals(index, LatencyHistogram.getIndex(previous + 1));
+			assertEquals(index, LatencyHistogram.getIndex(highest));
+			assertTrue(highest - previous <= (previous + 1) / 16 + 1);
+
+			previous = highest;
+		}
+	}
+
+	@Test
+	public void percentileTest() {
+
+		LatencyHistogram histogram = new LatencyHistogram();
+		assertEquals(0, histogram.getPercentile(99));
+
+		for (int i = 1; i <= 1000; i++) {
+			histogram.record(i);
+		}
+
+		assertEquals(1000, histogram.getCount());
+		assertEquals(1000, histogram.getMax());
+		assertEquals(500.5, histogram.getMean(), 0.001);
+
+		long median = histogram.getPercentile(50);
+		assertTrue(median >= 500 && median <= 500 + 500 / 16);
+
+		long p99 = histogram.getPercentile(99);
+		assertTrue(p99 >= 990 && p99 <= 1000);
+
+		assertEquals(1000, histogram.getPercentile(100));
+	}
+
+	@Test
+	public void concurrentRecordTest() throws InterruptedException {
+
+		LatencyHistogram histogram = new LatencyHistogram();
+
+		Thread[] threads = new Thread[4];
+		for (int i = 0; i < threads.length; i++) {
+			threads[i] = new Thread(() -> {
+				for (int j = 0; j < 10_000; j++) {
+					histogram.record(j % 100);
+				}
+			});
+			threads[i].start();
+		}
+
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		assertEquals(40_000, histogram.getCount());
+		assertEquals(99, histogram.getMax());
+	}
+
+	@Test
+	public void metricsTest() {
+
+		JmxCronMetrics metrics = new JmxCronMetrics();
+
+		CronJob job = new CronJob("bla");
+
+		metrics.lock(job, true);
+		metrics.lock(job, false);
+		assertEquals(0.5, metrics.getLockContentionRate(), 0.001);
+
+		metrics.lag(job, 20);
+		assertEquals(20, metrics.getLagMax());
+
+		metrics.executed(job, "http://localhost:8080/test", CronExecutorResult.ok(200), 10);
+		metrics.executed(job, "http://localhost:8080/test", CronExecutorResult.fail(500, "error"), 30);
+
+		assertEquals(2, metrics.getRuns());
+		assertEquals(1, metrics.getFailures());
+		assertEquals(30, metrics.getLatencyMax());
+		assertEquals(Long.valueOf(30), metrics.getHostLatency99().get("localhost:8080"));
+		assertEquals(2, metrics.getHostLatency("localhost:8080").getCount());
+
+		assertEquals(2, metrics.getJobLatency("bla").getCount());
+		metrics.deleted(job);
+		assertNull(metrics.getJobLatency("bla"));
+	}
+
+	@Test
+	public void jobLatencyBoundedTest() {
+
+		JmxCronMetrics metrics = new JmxCronMetrics(2);
+
+		CronJob first = new CronJob("first");
+		CronJob second = new CronJob("second");
+		CronJob third = new CronJob("third");
+
+		metrics.executed(first, null, CronExecutorResult.ok(200), 10);
+		metrics.executed(second, null, CronExecutorResult.ok(200), 20);
+		metrics.executed(first, null, CronExecutorResult.ok(200), 10);
+		metrics.executed(third, null, CronExecutorResult.ok(200), 30);
+
+		// least recently executed is dropped
+		assertEquals(2, metrics.getJobLatency99().size());
+		assertNull(metrics.getJobLatency("second"));
+		assertEquals(2, metrics.getJobLatency("first").getCount());
+		assertEquals(1, metrics.getJobLatency("third").getCount());
+		assertEquals(4, metrics.getRuns());
+
+		// disabled
+		metrics = new JmxCronMetrics(0);
+		metrics.executed(first, null, CronExecutorResult.ok(200), 10);
+		assertTrue(metrics.getJobLatency99().isEmpty());
+		assertEquals(1, metrics.getRuns());
+	}
+}
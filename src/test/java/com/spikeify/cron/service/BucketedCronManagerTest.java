@@ -0,0 +1,127 @@
+package com.spikeify.cron.service;
+
+import com.spikeify.Spikeify;
+import com.spikeify.cron.TestHelper;
+import com.spikeify.cron.data.EnableDisableUpdater;
+import com.spikeify.cron.data.LastRunUpdater;
+import com.spikeify.cron.data.ScheduleUpdater;
+import com.spikeify.cron.entities.CronJob;
+import com.spikeify.cron.entities.DueBucket;
+import com.spikeify.cron.entities.enums.CronJobResult;
+import com.spikeify.cron.entities.enums.RunEvery;
+import com.spikeify.cron.exceptions.CronJobException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class BucketedCronManagerTest {
+
+	private Spikeify sfy;
+
+	private CronManagerImpl store;
+
+	@Before
+	public void setUp() {
+
+		sfy = TestHelper.getSpikeify();
+		sfy.truncateNamespace(sfy.getNamespace());
+
+		store = new CronManagerImpl(sfy);
+	}
+
+	@After
+	public void tearDown() {
+
+		sfy.truncateNamespace(sfy.getNamespace());
+	}
+
+	@Test
+	public void listDueFromBuckets() throws CronJobException {
+
+		BucketedCronManager manager = new BucketedCronManager(sfy, store);
+
+		CronJob one = manager.create("one");
+		one = manager.update(one, new ScheduleUpdater("http://localhost/one", 1, RunEvery.hour));
+
+		manager.create("two"); // no schedule ... not in any bucket
+
+		DueBucket bucket = sfy.get(DueBucket.class).key(DueBucket.getKey(DueBucket.getMinute(one.getNextRun()))).now();
+		assertNotNull(bucket);
+		assertEquals(one.getNextRun(), (long) bucket.getJobs().get(one.getId()));
+
+		List<CronJob> due = manager.list(System.currentTimeMillis());
+		assertEquals(1, due.size());
+		assertEquals("one", due.get(0).getName());
+
+		// run ... moved to next hour
+		manager.update(one, new LastRunUpdater(System.currentTimeMillis(), CronJobResult.ok, null));
+		assertEquals(0, manager.list(System.currentTimeMillis()).size());
+	}
+
+	@Test
+	public void jobsOverLimitAreListedOnNextTrigger() throws CronJobException {
+
+		BucketedCronManager manager = new BucketedCronManager(sfy, store);
+
+		for (String name : new String[] {"one", "two", "three"}) {
+			CronJob job = manager.create(name);
+			manager.update(job, new ScheduleUpdater("http://localhost/" + name, 1, RunEvery.hour));
+		}
+
+		long time = System.currentTimeMillis();
+
+		List<CronJob> first = manager.list(time, 2);
+		assertEquals(2, first.size());
+
+		// rest is listed on next trigger
+		List<CronJob> second = manager.list(time, 2);
+		assertEquals(1, second.size());
+
+		Set<String> names = new HashSet<>();
+		for (CronJob job : first) {
+			names.add(job.getName());
+		}
+
+		names.add(second.get(0).getName());
+		assertEquals(3, names.size());
+
+		// all listed
+		assertEquals(0, manager.list(time, 2).size());
+
+		// skipped by service ... listed again
+		manager.skipped(second.get(0));
+		List<CronJob> third = manager.list(time, 2);
+		assertEquals(1, third.size());
+		assertEquals(second.get(0).getId(), third.get(0).getId());
+	}
+
+	@Test
+	public void sweepFindsJobsMissingInBuckets() throws CronJobException {
+
+		// stored directly ... no bucket
+		CronJob one = store.create("one");
+		store.update(one, new ScheduleUpdater("http://localhost/one", 1, RunEvery.hour));
+
+		BucketedCronManager manager = new BucketedCronManager(sfy, store);
+		assertEquals(1, manager.list(System.currentTimeMillis()).size()); // first trigger sweeps
+
+		// disabled through manager ... entry is left in bucket, but skipped
+		CronJob two = manager.create("two");
+		two = manager.update(two, new ScheduleUpdater("http://localhost/two", 5, RunEvery.minute));
+		long nextRun = two.getNextRun();
+
+		manager.update(two, new EnableDisableUpdater(false));
+
+		DueBucket bucket = sfy.get(DueBucket.class).key(DueBucket.getKey(DueBucket.getMinute(nextRun))).now();
+		assertTrue(bucket.getJobs().containsKey(two.getId()));
+		for (CronJob job : manager.list(nextRun)) {
+			assertNotEquals("two", job.getName());
+		}
+	}
+}
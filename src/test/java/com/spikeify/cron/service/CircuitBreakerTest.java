@@ -0,0 +1,180 @@
+package com.spikeify.cron.service;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CircuitBreakerTest {
+
+	/**
+	 * circuit breaker with simulated time
+	 */
+	private static class TestCircuitBreaker extends CircuitBreaker {
+
+		long time = 1444468800000L;
+
+		TestCircuitBreaker() {
+
+			super(3, 10_000L, 5_000L);
+		}
+
+		@Override
+		protected long getTime() {
+
+			return time;
+		}
+
+		/**
+		 * starts and fails a call
+		 */
+		void fail() {
+
+			failure(allow());
+		}
+	}
+
+	@Test
+	public void opensAfterFailuresInWindow() {
+
+		TestCircuitBreaker breaker = new TestCircuitBreaker();
+		assertEquals(CircuitBreaker.State.closed, breaker.getState());
+
+		breaker.fail();
+		breaker.time += 1000L;
+		breaker.fail();
+		assertNotEquals(CircuitBreaker.REJECTED, breaker.allow());
+
+		breaker.time += 1000L;
+		breaker.fail();
+		assertEquals(CircuitBreaker.State.open, breaker.getState());
+		assertEquals(CircuitBreaker.REJECTED, breaker.allow());
+	}
+
+	@Test
+	public void failuresOutsideWindowDoNotOpen() {
+
+		TestCircuitBreaker breaker = new TestCircuitBreaker();
+
+		breaker.fail();
+		breaker.time += 6000L;
+		breaker.fail();
+		breaker.time += 6000L;
+		breaker.fail(); // first failure is 12s old ... out of window
+
+		assertEquals(CircuitBreaker.State.closed, breaker.getState());
+		assertNotEquals(CircuitBreaker.REJECTED, breaker.allow());
+
+		breaker.time += 1000L;
+		breaker.fail(); // last three failures within 7s
+
+		assertEquals(CircuitBreaker.State.open, breaker.getState());
+	}
+
+	@Test
+	public void halfOpenProbe() {
+
+		TestCircuitBreaker breaker = new TestCircuitBreaker();
+		breaker.fail();
+		breaker.fail();
+		breaker.fail();
+		assertEquals(CircuitBreaker.REJECTED, breaker.allow());
+
+		// open duration passed ... single probe is let through
+		breaker.time += 5000L;
+		long probe = breaker.allow();
+		assertNotEquals(CircuitBreaker.REJECTED, probe);
+		assertEquals(CircuitBreaker.State.halfOpen, breaker.getState());
+		assertEquals(CircuitBreaker.REJECTED, breaker.allow());
+
+		// probe failed ... open again
+		breaker.failure(probe);
+		assertEquals(CircuitBreaker.State.open, breaker.getState());
+		assertEquals(CircuitBreaker.REJECTED, breaker.allow());
+
+		// next probe succeeds ... closed
+		breaker.time += 5000L;
+		probe = breaker.allow();
+		assertNotEquals(CircuitBreaker.REJECTED, probe);
+		breaker.success(probe);
+		assertEquals(CircuitBreaker.State.closed, breaker.getState());
+		assertNotEquals(CircuitBreaker.REJECTED, breaker.allow());
+
+		// failures are counted from scratch
+		breaker.fail();
+		breaker.fail();
+		assertEquals(CircuitBreaker.State.closed, breaker.getState());
+	}
+
+	@Test
+	public void lostProbeIsRepeated() {
+
+		TestCircuitBreaker breaker = new TestCircuitBreaker();
+		breaker.fail();
+		breaker.fail();
+		breaker.fail();
+
+		breaker.time += 5000L;
+		long lost = breaker.allow();
+		assertNotEquals(CircuitBreaker.REJECTED, lost);
+		assertEquals(CircuitBreaker.REJECTED, breaker.allow());
+
+		// probe never reported back
+		breaker.time += 5000L;
+		long probe = breaker.allow();
+		assertNotEquals(CircuitBreaker.REJECTED, probe);
+
+		// lost probe finally reports back ... only current probe decides
+		breaker.failure(lost);
+		assertEquals(CircuitBreaker.State.halfOpen, breaker.getState());
+
+		breaker.success(probe);
+		assertEquals(CircuitBreaker.State.closed, breaker.getState());
+	}
+
+	@Test
+	public void staleResultsAreIgnored() {
+
+		TestCircuitBreaker breaker = new TestCircuitBreaker();
+
+		// slow calls started while circuit was closed
+		long slowFailure = breaker.allow();
+		long slowSuccess = breaker.allow();
+
+		breaker.fail();
+		breaker.fail();
+		breaker.fail();
+		assertEquals(CircuitBreaker.State.open, breaker.getState());
+
+		breaker.time += 5000L;
+		long probe = breaker.allow();
+		assertEquals(CircuitBreaker.State.halfOpen, breaker.getState());
+
+		// results of calls started before circuit opened don't decide half open outcome
+		breaker.failure(slowFailure);
+		assertEquals(CircuitBreaker.State.halfOpen, breaker.getState());
+
+		breaker.success(slowSuccess);
+		assertEquals(CircuitBreaker.State.halfOpen, breaker.getState());
+
+		breaker.success(probe);
+		assertEquals(CircuitBreaker.State.closed, breaker.getState());
+
+		// nor are they counted once circuit is closed again
+		breaker.failure(slowFailure);
+		breaker.failure(slowFailure);
+		breaker.failure(slowFailure);
+		assertEquals(CircuitBreaker.State.closed, breaker.getState());
+
+		// late probe result is ignored too
+		breaker.failure(probe);
+		breaker.failure(probe);
+		breaker.failure(probe);
+		assertEquals(CircuitBreaker.State.closed, breaker.getState());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void invalidThreshold() {
+
+		new CircuitBreaker(0, 1000L, 1000L);
+	}
+}
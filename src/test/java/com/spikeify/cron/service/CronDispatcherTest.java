@@ -0,0 +1,83 @@
+package com.spikeify.cron.service;
+
+import com.spikeify.cron.metrics.JmxCronMetrics;
+import org.junit.Test;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class CronDispatcherTest {
+
+	/**
+	 * dispatches two jobs on each tick, one of them is locked (other is taken by other instance)
+	 */
+	private static class TestCronService extends CronServiceImpl {
+
+		final AtomicInteger dispatched = new AtomicInteger();
+
+		TestCronService() {
+
+			super(null, null, null, new JmxCronMetrics());
+		}
+
+		@Override
+		public int dispatch(Executor workers) {
+
+			dispatched.addAndGet(2);
+			return 2;
+		}
+
+		@Override
+		public long getStartedCount() {
+
+			return dispatched.get() / 2;
+		}
+
+		@Override
+		public int run() {
+
+			return 5;
+		}
+	}
+
+	@Test
+	public void dispatchPauseResume() throws InterruptedException {
+
+		TestCronService service = new TestCronService();
+		CronDispatcher dispatcher = new CronDispatcher(service, 2, 10L);
+		assertFalse(dispatcher.isRunning());
+
+		dispatcher.start();
+		assertTrue(dispatcher.isRunning());
+
+		Thread.sleep(200L);
+		assertTrue(dispatcher.getFired() > 0);
+		assertTrue(dispatcher.getLastTick() > 0);
+		assertTrue(dispatcher.getFiredPerSecond() > 0);
+		assertTrue(dispatcher.getFired() <= service.dispatched.get() / 2);
+		assertTrue(dispatcher.getLockedJobs().isEmpty());
+
+		// paused ... nothing is dispatched
+		dispatcher.pause();
+		assertTrue(dispatcher.isPaused());
+		Thread.sleep(50L);
+
+		int count = service.dispatched.get();
+		Thread.sleep(100L);
+		assertEquals(count, service.dispatched.get());
+
+		dispatcher.resume();
+		Thread.sleep(100L);
+		assertTrue(service.dispatched.get() > count);
+
+		// manual trigger
+		assertEquals(5, dispatcher.trigger());
+
+		dispatcher.stop();
+		assertFalse(dispatcher.isRunning());
+		assertEquals(0, dispatcher.getQueueDepth());
+		assertEquals(0, dispatcher.getInFlight());
+	}
+}
@@ -13,6 +13,9 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.net.ServerSocket;
+import java.net.Socket;
+
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 
@@ -59,4 +62,31 @@ public class CronExecutorImplTest {
 		Assert.assertEquals(CronJobResult.fail, result.getJobResult());
 		assertEquals("Connection refused", result.getMessage());
 	}
+
+	@Test
+	public void testReadTimeout() throws Exception {
+
+		// target accepts connection but never responds
+		try (ServerSocket server = new ServerSocket(0)) {
+
+			Thread acceptor = new Thread(() -> {
+				try (Socket ignored = server.accept()) {
+					Thread.sleep(5000);
+				}
+				catch (Exception e) {
+					// closed
+				}
+			});
+			acceptor.setDaemon(true);
+			acceptor.start();
+
+			long start = System.currentTimeMillis();
+			CronExecutorResult result = executor.execute("http://localhost:" + server.getLocalPort() + "/", new DefaultCronSettings(null), 1000, 200);
+
+			assertNotNull(result);
+			Assert.assertEquals(CronJobResult.timeout, result.getJobResult());
+			assertEquals(504, result.getHttpStatus());
+			Assert.assertTrue(System.currentTimeMillis() - start < 2000);
+		}
+	}
 }
\ No newline at end of file
@@ -2,9 +2,11 @@ package com.spikeify.cron.service;
 
 import com.spikeify.Spikeify;
 import com.spikeify.cron.TestHelper;
+import com.spikeify.cron.data.CronExecutorResult;
 import com.spikeify.cron.data.CronJsonUpdater;
 import com.spikeify.cron.data.LastRunUpdater;
 import com.spikeify.cron.data.LockCronUpdater;
+import com.spikeify.cron.data.PriorityUpdater;
 import com.spikeify.cron.data.ScheduleUpdater;
 import com.spikeify.cron.data.json.CronJobJSON;
 import com.spikeify.cron.entities.CronJob;
@@ -15,9 +17,12 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static org.junit.Assert.*;
 
@@ -232,6 +237,31 @@ public class CronManagerImplTest {
 		assertNull(compare.getRunToMinute());
 	}
 
+	@Test
+	public void testUpdateOptimistic() throws Exception {
+
+		CronJob job = manager.create("job");
+		manager.update(job, new ScheduleUpdater("http://some/url", 1, RunEvery.hour));
+
+		// fresh copy ... written directly
+		CronJob fresh = manager.get(job.getId());
+		CronJob updated = manager.updateOptimistic(fresh, new LockCronUpdater(10L));
+		assertSame(fresh, updated);
+		assertEquals(10L, manager.get(job.getId()).getStartedTime());
+
+		// stale copy ... changed in the meantime, so updater is applied to fresh record
+		CronJob stale = manager.get(job.getId());
+		manager.update(job, new ScheduleUpdater("http://some/other", 2, RunEvery.hour));
+
+		updated = manager.updateOptimistic(stale, new LastRunUpdater(System.currentTimeMillis(), new CronExecutorResult(CronJobResult.ok, 200, "ok"), System.currentTimeMillis(), 1L));
+		assertNotSame(stale, updated);
+
+		CronJob compare = manager.get(job.getId());
+		assertEquals("http://some/other", compare.getTarget(null));
+		assertEquals(2, compare.getInterval());
+		assertEquals(1, compare.getHistory().size());
+	}
+
 	@Test
 	public void testList() throws Exception {
 
@@ -274,6 +304,96 @@ public class CronManagerImplTest {
 		assertEquals(job.getId(), compare.getId());
 	}
 
+	@Test
+	public void testListByTimeWithLimit() throws Exception {
+
+		for (int i = 0; i < 5; i++) {
+			CronJob job = manager.create("job" + i);
+			manager.update(job, new ScheduleUpdater("http://some/url/" + i, 1, RunEvery.minute));
+		}
+
+		CronJob important = manager.create("important");
+		manager.update(important, new ScheduleUpdater("http://some/url/important", 1, RunEvery.minute));
+		manager.update(important, new PriorityUpdater(10));
+
+		List<CronJob> list = manager.list(System.currentTimeMillis(), 2);
+		assertEquals(2, list.size());
+		assertEquals("important", list.get(0).getName());
+
+		assertEquals(6, manager.list(System.currentTimeMillis(), 0).size());
+	}
+
+	@Test
+	public void testSplitDueRanges() {
+
+		long time = 1444468800000L;
+
+		assertArrayEquals(new long[][] {{0, time}}, new CronManagerImpl(sfy).split(time));
+
+		// nothing known about due jobs yet
+		CronManagerImpl parallel = new CronManagerImpl(sfy, 4);
+		assertArrayEquals(new long[][] {{0, time}}, parallel.split(time));
+
+		// most jobs due within last second, a few long overdue
+		List<Long> dueTimes = new ArrayList<>();
+		for (int i = 0; i < 96; i++) {
+			dueTimes.add(time - i * 10L);
+		}
+
+		for (int i = 1; i <= 4; i++) {
+			dueTimes.add(time - i * 60 * 60 * 1000L);
+		}
+
+		parallel.sample(time, dueTimes);
+
+		// next query is split by density, not evenly by time
+		long next = time + 1000L;
+		long[][] ranges = parallel.split(next);
+		assertEquals(4, ranges.length);
+
+		// continuous from 0 up to given time
+		assertEquals(0, ranges[0][0]);
+		assertEquals(next, ranges[3][1]);
+		for (int i = 1; i < ranges.length; i++) {
+			assertEquals(ranges[i - 1][1] + 1, ranges[i][0]);
+		}
+
+		// about the same number of sampled jobs in each part
+		for (long[] range : ranges) {
+			long count = dueTimes.stream().filter(due -> due + 1000L >= range[0] && due + 1000L <= range[1]).count();
+			assertTrue("Expected about 25 jobs in range, but got: " + count, count >= 24 && count <= 26);
+		}
+
+		// jobs due at the same time can't be split
+		parallel.sample(time, Collections.nCopies(100, time));
+		assertEquals(1, parallel.split(time).length);
+
+		// nothing found ... previous split is kept
+		parallel.sample(time, Collections.emptyList());
+		assertEquals(1, parallel.split(time).length);
+	}
+
+	@Test
+	public void testParallelListByTime() throws Exception {
+
+		CronManagerImpl parallel = new CronManagerImpl(sfy, 4);
+
+		for (int i = 0; i < 10; i++) {
+			CronJob job = parallel.create("job" + i);
+			parallel.update(job, new ScheduleUpdater("http://some/url/" + i, 1, RunEvery.minute));
+		}
+
+		assertEquals(10, parallel.list(System.currentTimeMillis()).size());
+
+		Set<String> ids = ConcurrentHashMap.newKeySet();
+		parallel.forEachDue(System.currentTimeMillis(), job -> ids.add(job.getId()));
+		assertEquals(10, ids.size());
+
+		// query threads stopped ... queries run in calling thread
+		parallel.close();
+		assertEquals(10, parallel.list(System.currentTimeMillis()).size());
+	}
+
 	@Test
 	public void runAndSetNextRunTime() throws CronJobException {
 
@@ -2,11 +2,18 @@ package com.spikeify.cron.service;
 
 import com.spikeify.cron.TestHelper;
 import com.spikeify.cron.data.CronExecutorResult;
+import com.spikeify.cron.data.CronProjection;
+import com.spikeify.cron.data.FirstRunUpdater;
+import com.spikeify.cron.data.LastRunUpdater;
+import com.spikeify.cron.data.MisfireUpdater;
 import com.spikeify.cron.data.ScheduleUpdater;
+import com.spikeify.cron.data.json.CronJobBinary;
 import com.spikeify.cron.data.json.CronJobJSON;
 import com.spikeify.cron.entities.CronJob;
 import com.spikeify.cron.entities.DummyCronJob;
 import com.spikeify.cron.entities.enums.CronJobResult;
+import com.spikeify.cron.entities.enums.ExportFormat;
+import com.spikeify.cron.entities.enums.MisfirePolicy;
 import com.spikeify.cron.entities.enums.RunEvery;
 import com.spikeify.cron.exceptions.CronJobException;
 import com.spikeify.Spikeify;
@@ -15,8 +22,11 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 
 import static org.junit.Assert.*;
 
@@ -24,6 +34,8 @@ public class CronServiceImplTest {
 
 	private static final long ONE_WEEK = 7L * 24L * 60L * 60L * 1000L;
 
+	private static final long ONE_MINUTE = 60L * 1000L;
+
 	Spikeify sfy;
 	CronManager manager;
 	CronExecutor executor;
@@ -109,6 +121,106 @@ public class CronServiceImplTest {
 		assertEquals("No URL given, can't run!", result.getMessage());
 	}
 
+	@Test
+	public void testRunUnscheduledJob() throws Exception {
+
+		// executor recording manual calls
+		List<String> called = new ArrayList<>();
+		CronExecutor recording = new CronExecutorImpl() {
+
+			@Override
+			public CronExecutorResult execute(String target, CronSettings settings) {
+
+				called.add(target);
+				return CronExecutorResult.ok(200);
+			}
+		};
+
+		service = new CronServiceImpl(manager, recording, null);
+
+		CronJob job = service.create("Bla");
+		job.setTarget("http://localhost/manual");
+		assertFalse(job.canRun());
+
+		// no schedule ... but can still be run manually
+		CronExecutorResult result = service.run(job);
+		assertEquals(CronJobResult.ok, result.getJobResult());
+		assertEquals(1, called.size());
+		assertEquals("http://localhost/manual", called.get(0));
+	}
+
+	@Test
+	public void testReplayMissedRuns() throws CronJobException {
+
+		// executor recording time of each run
+		List<Long> runs = new ArrayList<>();
+		CronExecutor recording = new CronExecutorImpl() {
+
+			@Override
+			public CronExecutorResult run(CronJob job, CronSettings settings) {
+
+				runs.add(job.getNextRun());
+				return CronExecutorResult.ok(200);
+			}
+		};
+
+		// max 3 missed runs per trigger
+		service = new CronServiceImpl(manager, recording, new DefaultCronSettings(null, null, null, 1000, 1000, 3));
+
+		long now = System.currentTimeMillis();
+
+		CronJob job = service.create("Bla");
+		service.update(job, new ScheduleUpdater("http://localhost/", 1, RunEvery.minute));
+		service.update(job, new MisfireUpdater(MisfirePolicy.fireAll));
+
+		// last run 5 minutes ago ... 4 runs missed
+		job = service.update(job, new LastRunUpdater(now - 5 * ONE_MINUTE, CronJobResult.ok, null));
+		long missed = job.getNextRun();
+		assertEquals(now - 4 * ONE_MINUTE, missed);
+
+		// missed runs are replayed in same trigger up to misfire limit, each with its own time
+		assertEquals(1, service.run());
+		assertEquals(3, runs.size());
+		assertEquals(missed, (long) runs.get(0));
+		assertEquals(missed + ONE_MINUTE, (long) runs.get(1));
+		assertEquals(missed + 2 * ONE_MINUTE, (long) runs.get(2));
+
+		CronJob found = service.find(job.getId());
+		assertEquals(missed + 2 * ONE_MINUTE, (long) found.getLastRun());
+		assertEquals(missed + 3 * ONE_MINUTE, found.getNextRun());
+
+		// next trigger catches up ... last missed and current run
+		assertEquals(1, service.run());
+		assertEquals(5, runs.size());
+		assertEquals(now, (long) runs.get(4));
+
+		found = service.find(job.getId());
+		assertEquals(now + ONE_MINUTE, found.getNextRun());
+	}
+
+	@Test
+	public void testProject() throws CronJobException {
+
+		CronJob first = service.create("First");
+		first = service.update(first, new ScheduleUpdater("http://localhost/", 15, RunEvery.minute));
+
+		CronJob second = service.create("Second");
+		service.update(second, new ScheduleUpdater("http://localhost/", 1, RunEvery.hour));
+
+		long from = first.getNextRun();
+		long to = from + 60L * 60L * 1000L;
+
+		long[] runs = service.project(first, from, to);
+		assertEquals(4, runs.length);
+		assertEquals(from + 15L * 60L * 1000L, runs[1]);
+
+		// runs per minute in next hour
+		CronProjection projection = service.project(from, to, 60L * 1000L);
+		assertEquals(60, projection.getBuckets());
+		assertEquals(5, projection.getTotal());
+		assertEquals(1, projection.getCount(15));
+	}
+
 	@Test
 	public void testDeleteJob() throws CronJobException {
 
@@ -156,6 +268,31 @@ public class CronServiceImplTest {
 		assertEquals(3, count);
 	}
 
+	@Test
+	public void testExportImportBinaryJobs() throws CronJobException {
+
+		CronJob one = service.create("one");
+		one = service.update(one, new ScheduleUpdater("http://localhost/", 5, RunEvery.minute, 10, 30, 11, 45, 0));
+
+		CronJob two = service.create("two");
+		two = service.update(two, new ScheduleUpdater("http://localhost/", "*/15 9-17 * * MON-FRI", ZoneId.of("Europe/Ljubljana")));
+
+		byte[] data = service.exportJobs(0, ExportFormat.binary);
+		assertTrue(CronJobBinary.isBinary(data));
+
+		service.delete(one);
+		service.delete(two);
+		assertEquals(0, service.list().size());
+
+		service.importJobs(data, ExportFormat.binary, 0);
+		List<CronJob> compare = service.list();
+		assertEquals(2, compare.size());
+
+		for (CronJob job : compare) {
+			assertTrue(job.equals(one) || job.equals(two));
+		}
+	}
+
 	@Test
 	public void importFromResourceTest() throws CronJobException {
 
@@ -230,6 +367,47 @@ public class CronServiceImplTest {
 		assertNull(compare.getRunFromMinute());
 	}
 
+	@Test
+	public void testPrefetchFiresAtNextRun() throws Exception {
+
+		CronServiceImpl cron = new CronServiceImpl(manager, new CronExecutorImpl() {
+			@Override
+			public CronExecutorResult execute(String target, CronSettings settings, int connectTimeout, int readTimeout) {
+
+				return CronExecutorResult.ok(200);
+			}
+		}, null);
+
+		CronJob job = cron.create("soon");
+		long nextRun = System.currentTimeMillis() + 500L;
+		manager.update(job, new ScheduleUpdater("http://localhost/soon", 1, RunEvery.hour));
+		manager.update(job, new FirstRunUpdater(nextRun));
+
+		ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+		try {
+			assertEquals(1, cron.prefetch(scheduler, Runnable::run, 2000L));
+			assertEquals(0, cron.prefetch(scheduler, Runnable::run, 2000L)); // already waiting
+			assertEquals(1, cron.getPrefetchedCount());
+
+			// wait until fired and stored
+			long deadline = System.currentTimeMillis() + 5000L;
+			CronJob fired = manager.get(job.getId());
+			while (fired.getLastRun() == null && System.currentTimeMillis() < deadline) {
+				Thread.sleep(20L);
+				fired = manager.get(job.getId());
+			}
+
+			assertEquals(0, cron.getPrefetchedCount());
+			assertNotNull(fired.getLastRun());
+			assertTrue(fired.getHistory().get(0).getStart() >= nextRun);
+			assertEquals(1, fired.getHistory().size());
+			assertTrue(fired.getNextRun() > System.currentTimeMillis());
+		}
+		finally {
+			scheduler.shutdownNow();
+		}
+	}
+
 	@Test
 	public void multipleThreadsRunningSameCronJobs() throws InterruptedException, CronJobException {
 
@@ -0,0 +1,125 @@
+package com.spikeify.cron.service;
+
+import com.spikeify.Spikeify;
+import com.spikeify.cron.TestHelper;
+import com.spikeify.cron.data.LockCronUpdater;
+import com.spikeify.cron.data.ScheduleUpdater;
+import com.spikeify.cron.entities.CronJob;
+import com.spikeify.cron.entities.enums.RunEvery;
+import com.spikeify.cron.exceptions.CronJobException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class IndexedCronManagerTest {
+
+	private Spikeify sfy;
+
+	private CronManagerImpl store;
+
+	private Path snapshot;
+
+	@Before
+	public void setUp() throws IOException {
+
+		sfy = TestHelper.getSpikeify();
+		sfy.truncateNamespace(sfy.getNamespace());
+
+		store = new CronManagerImpl(sfy);
+		snapshot = Files.createTempFile("schedule", ".snapshot");
+		Files.delete(snapshot);
+	}
+
+	@After
+	public void tearDown() throws IOException {
+
+		sfy.truncateNamespace(sfy.getNamespace());
+		Files.deleteIfExists(snapshot);
+	}
+
+	@Test
+	public void listDueFromIndex() throws CronJobException {
+
+		IndexedCronManager manager = new IndexedCronManager(store);
+
+		CronJob one = manager.create("one");
+		manager.update(one, new ScheduleUpdater("http://localhost/one", 1, RunEvery.hour));
+
+		CronJob two = manager.create("two"); // no schedule ... can't run
+		assertNotNull(two);
+
+		assertEquals(1, manager.size());
+
+		List<CronJob> due = manager.list(System.currentTimeMillis());
+		assertEquals(1, due.size());
+		assertEquals("one", due.get(0).getName());
+
+		// deleted by other instance ... dropped from index once due
+		store.delete(one);
+		assertEquals(0, manager.list(System.currentTimeMillis()).size());
+		assertEquals(0, manager.size());
+	}
+
+	@Test
+	public void lockedJobNotReadUntilLockExpires() throws CronJobException {
+
+		// counts records read
+		AtomicInteger reads = new AtomicInteger();
+		CronManagerImpl counting = new CronManagerImpl(sfy) {
+
+			@Override
+			public CronJob find(String id) {
+
+				reads.incrementAndGet();
+				return super.find(id);
+			}
+		};
+
+		IndexedCronManager manager = new IndexedCronManager(counting);
+
+		CronJob one = manager.create("one");
+		one = manager.update(one, new ScheduleUpdater("http://localhost/one", 1, RunEvery.hour));
+
+		assertEquals(1, manager.list(System.currentTimeMillis()).size());
+		assertEquals(1, reads.get());
+
+		// locked (running) ... not due until lock expires, so record is not read on each trigger
+		manager.updateOptimistic(one, new LockCronUpdater(System.nanoTime()));
+
+		assertEquals(0, manager.list(System.currentTimeMillis()).size());
+		assertEquals(0, manager.list(System.currentTimeMillis()).size());
+		assertEquals(1, reads.get());
+	}
+
+	@Test
+	public void warmStartFromSnapshot() throws CronJobException {
+
+		IndexedCronManager manager = new IndexedCronManager(store, snapshot);
+
+		CronJob one = manager.create("one");
+		manager.update(one, new ScheduleUpdater("http://localhost/one", 1, RunEvery.hour));
+
+		manager.load();
+		assertTrue(manager.snapshot());
+		assertTrue(Files.exists(snapshot));
+
+		// changed after snapshot was taken
+		CronJob two = store.create("two");
+		store.update(two, new ScheduleUpdater("http://localhost/two", 5, RunEvery.minute));
+
+		// restart ... snapshot plus changes
+		IndexedCronManager restarted = new IndexedCronManager(store, snapshot);
+		restarted.load();
+
+		assertEquals(2, restarted.size());
+		assertEquals(2, restarted.list(System.currentTimeMillis()).size());
+	}
+}
@@ -0,0 +1,240 @@
+package com.spikeify.cron.service;
+
+import ch.qos.logback.classic.Level;
+import com.spikeify.cron.data.CronExecutorResult;
+import com.spikeify.cron.data.CronJobUpdater;
+import com.spikeify.cron.data.json.CronJobJSON;
+import com.spikeify.cron.entities.CronJob;
+import com.spikeify.cron.entities.enums.RunEvery;
+import com.spikeify.cron.metrics.JmxCronMetrics;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that jobs are not rendered into log messages when INFO logging is off, measured per fired job through cron service and executor
+ */
+public class LoggingAllocationTest {
+
+	private static final int RUNS = 10_000;
+
+	private ch.qos.logback.classic.Logger logger;
+
+	private Level level;
+
+	/**
+	 * job counting how many times it was rendered
+	 */
+	private static class CountingCronJob extends CronJob {
+
+		final AtomicInteger rendered;
+
+		CountingCronJob() {
+
+			this(new AtomicInteger());
+		}
+
+		CountingCronJob(AtomicInteger counter) {
+
+			super("bla");
+			id = "bla";
+			rendered = counter;
+		}
+
+		@Override
+		public String toString() {
+
+			rendered.incrementAndGet();
+			return super.toString();
+		}
+	}
+
+	@Before
+	public void setUp() {
+
+		Logger log = LoggerFactory.getLogger(CronExecutorImpl.class);
+		Assume.assumeTrue(log instanceof ch.qos.logback.classic.Logger);
+
+		logger = (ch.qos.logback.classic.Logger) log;
+		level = logger.getLevel();
+		logger.setLevel(Level.WARN);
+	}
+
+	@After
+	public void tearDown() {
+
+		if (logger != null) {
+			logger.setLevel(level);
+		}
+	}
+
+	@Test
+	public void jobIsNotRenderedOnRun() {
+
+		CountingCronJob job = new CountingCronJob();
+		job.setTarget("http://localhost:1/test"); // nothing listens there
+		job.setRunInterval(1, RunEvery.minute);
+
+		CronExecutorImpl executor = new CronExecutorImpl();
+		executor.run(job, new DefaultCronSettings(null));
+
+		assertEquals(0, job.rendered.get());
+	}
+
+	@Test
+	public void allocationPerFiredJobDrops() throws Exception {
+
+		java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+		Assume.assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+
+		logger.setLevel(Level.ERROR); // open circuit is logged as warning
+
+		// circuit opens after first failed call ... following runs don't touch the network
+		CronExecutorImpl lazy = new CronExecutorImpl(1, 60_000L, 60_000L);
+		CronExecutorImpl eager = new CronExecutorImpl(1, 60_000L, 60_000L) {
+
+			@Override
+			public CronExecutorResult run(CronJob job, CronSettings settings) {
+
+				logger.info("Running: " + job); // as it was logged before
+				return super.run(job, settings);
+			}
+		};
+
+		InMemoryCronManager manager = new InMemoryCronManager();
+		CronServiceImpl lazyService = new CronServiceImpl(manager, lazy, null, new JmxCronMetrics(0));
+		CronServiceImpl eagerService = new CronServiceImpl(manager, eager, null, new JmxCronMetrics(0));
+
+		long threadId = Thread.currentThread().getId();
+
+		// warm up
+		for (int i = 0; i < RUNS; i++) {
+			assertEquals(1, lazyService.run());
+			assertEquals(1, eagerService.run());
+		}
+
+		long start = threads.getThreadAllocatedBytes(threadId);
+		for (int i = 0; i < RUNS; i++) {
+			eagerService.run();
+		}
+
+		long eagerBytes = threads.getThreadAllocatedBytes(threadId) - start;
+
+		manager.rendered.set(0);
+		start = threads.getThreadAllocatedBytes(threadId);
+		for (int i = 0; i < RUNS; i++) {
+			lazyService.run();
+		}
+
+		long lazyBytes = threads.getThreadAllocatedBytes(threadId) - start;
+
+		// job is no longer rendered for each fired job ... rest of the path is the same
+		assertEquals(0, manager.rendered.get());
+		assertTrue("Expected less than " + eagerBytes / RUNS + " bytes per fired job, but was: " + lazyBytes / RUNS, lazyBytes < eagerBytes);
+	}
+
+	/**
+	 * Holds a single job due on every call, each read returns a fresh copy
+	 */
+	private static class InMemoryCronManager implements CronManager {
+
+		final AtomicInteger rendered = new AtomicInteger();
+
+		private CountingCronJob newJob() {
+
+			CountingCronJob job = new CountingCronJob(rendered);
+			job.setTarget("http://localhost:1/test"); // nothing listens there
+			job.setRunInterval(1, RunEvery.minute);
+			return job;
+		}
+
+		@Override
+		public CronJob create(String name) {
+
+			return newJob();
+		}
+
+		@Override
+		public CronJob update(CronJob job, CronJobUpdater updater) {
+
+			updater.update(job);
+			return job;
+		}
+
+		@Override
+		public CronJob updateOptimistic(CronJob job, CronJobUpdater updater) {
+
+			updater.update(job);
+			return job;
+		}
+
+		@Override
+		public CronJob get(String id) {
+
+			return newJob();
+		}
+
+		@Override
+		public CronJob find(String id) {
+
+			return newJob();
+		}
+
+		@Override
+		public CronJob findByName(String name) {
+
+			return newJob();
+		}
+
+		@Override
+		public List<CronJob> list() {
+
+			return Collections.singletonList(newJob());
+		}
+
+		@Override
+		public List<CronJob> list(long time) {
+
+			return list();
+		}
+
+		@Override
+		public List<CronJob> list(long time, int limit) {
+
+			return list();
+		}
+
+		@Override
+		public List<CronJob> listUpcoming(long from, long to) {
+
+			return Collections.emptyList();
+		}
+
+		@Override
+		public List<CronJob> listModified(long since) {
+
+			return Collections.emptyList();
+		}
+
+		@Override
+		public void delete(CronJob job) {
+		}
+
+		@Override
+		public void importJob(CronJobJSON job, long lastModified, int timeZone) {
+		}
+	}
+}
@@ -0,0 +1,173 @@
+package com.spikeify.cron.utils;
+
+import org.junit.Test;
+
+import java.time.zone.ZoneRules;
+
+import static org.junit.Assert.*;
+
+public class CronExpressionTest {
+
+	private static final long TIME = 1444468800000L; // Sat, 10 Oct 2015 09:20:00 UTC
+
+	@Test
+	public void everyMinute() {
+
+		CronExpression expression = CronExpression.parse("* * * * *");
+		assertEquals(TIME + 60_000L, expression.next(TIME));
+		assertEquals(TIME, expression.next(TIME - 1));
+		assertEquals(TIME + 60_000L, expression.next(TIME + 59_999L));
+	}
+
+	@Test
+	public void stepsAndRanges() {
+
+		CronExpression expression = CronExpression.parse("*/15 9-17 * * *");
+		assertEquals(1444469400000L, expression.next(TIME)); // 09:30
+		assertEquals(1444496400000L, expression.next(1444495500000L)); // 16:45 -> 17:00
+		assertEquals(1444554000000L, expression.next(1444499100000L)); // 17:45 -> next day 09:00
+
+		expression = CronExpression.parse("10-30/10 * * * *");
+		assertEquals(1444469400000L, expression.next(TIME)); // 09:30
+		assertEquals(1444471800000L, expression.next(1444469400000L)); // 10:10
+	}
+
+	@Test
+	public void lists() {
+
+		CronExpression expression = CronExpression.parse("0 6,12,18 * * *");
+		assertEquals(1444478400000L, expression.next(TIME)); // 12:00
+		assertEquals(1444500000000L, expression.next(1444478400000L)); // 18:00
+		assertEquals(1444543200000L, expression.next(1444500000000L)); // next day 06:00
+	}
+
+	@Test
+	public void dayOfWeekAndMonth() {
+
+		// Monday 12.10.2015 at 08:00
+		CronExpression expression = CronExpression.parse("0 8 * * MON");
+		assertEquals(1444636800000L, expression.next(TIME));
+		assertEquals(expression, CronExpression.parse("0 8 * * 1"));
+
+		// Sunday as 0 or 7
+		assertEquals(CronExpression.parse("0 8 * * 0"), CronExpression.parse("0 8 * * 7"));
+		assertEquals(CronExpression.parse("0 8 * * SUN"), CronExpression.parse("0 8 * * 7"));
+
+		// 1st of month ... 1.11.2015 00:00
+		expression = CronExpression.parse("@monthly");
+		assertEquals(1446336000000L, expression.next(TIME));
+
+		// 1st of December
+		expression = CronExpression.parse("0 0 1 dec *");
+		assertEquals(1448928000000L, expression.next(TIME));
+
+		// 15th or any Monday ... Monday 12.10.2015 comes first
+		expression = CronExpression.parse("0 0 15 * 1");
+		assertEquals(1444608000000L, expression.next(TIME));
+		assertEquals(1444867200000L, expression.next(1444608000000L)); // Thursday 15.10.2015
+	}
+
+	@Test
+	public void unrestrictedDayField() {
+
+		// day of month matching all days is not a restriction ... only Mondays match
+		for (String value : new String[] {"0 0 */1 * MON", "0 0 1-31 * MON", "0 0 ? * MON"}) {
+
+			CronExpression expression = CronExpression.parse(value);
+			assertEquals(value, 1444608000000L, expression.next(TIME)); // Monday 12.10.2015
+			assertEquals(value, 1445212800000L, expression.next(1444608000000L)); // Monday 19.10.2015
+			assertEquals(CronExpression.parse("0 0 * * MON"), expression);
+		}
+
+		// same for day of week ... only 1st of month
+		CronExpression expression = CronExpression.parse("0 0 1 * 0-6");
+		assertEquals(1446336000000L, expression.next(TIME)); // 1.11.2015
+	}
+
+	@Test
+	public void leapYear() {
+
+		CronExpression expression = CronExpression.parse("0 12 29 2 *");
+		assertEquals(1456747200000L, expression.next(TIME)); // 29.2.2016 12:00
+		assertEquals(1582977600000L, expression.next(1456747200000L)); // 29.2.2020 12:00
+	}
+
+	@Test
+	public void seconds() {
+
+		CronExpression expression = CronExpression.parse("*/10 * * * * *");
+		assertEquals(TIME + 10_000L, expression.next(TIME));
+		assertEquals(TIME + 10_000L, expression.next(TIME + 5_000L));
+
+		expression = CronExpression.parse("30 0 0 * * *");
+		assertEquals(1444521630000L, expression.next(TIME)); // 11.10.2015 00:00:30
+	}
+
+	@Test
+	public void timeZoneOffset() {
+
+		// 10:00 in UTC+2 is 08:00 UTC
+		CronExpression expression = CronExpression.parse("0 10 * * *");
+		assertEquals(1444550400000L, expression.next(TIME, 2L * 60L * 60L * 1000L)); // 11.10.2015 08:00 UTC
+	}
+
+	@Test
+	public void daylightSavingTime() {
+
+		ZoneRules rules = DateTimeUtils.getZoneRules("Europe/Ljubljana");
+		CronExpression expression = CronExpression.parse("30 2 * * *");
+
+		// 29.3.2015 02:30 does not exist ... run at 03:30 (01:30 UTC)
+		assertEquals(1427592600000L, expression.next(1427544000000L, rules));
+
+		// 25.10.2015 02:30 is there twice ... run only once (00:30 UTC), then on 26.10.2015 02:30 (01:30 UTC)
+		assertEquals(1445733000000L, expression.next(1445688000000L, rules));
+		assertEquals(1445823000000L, expression.next(1445733000000L, rules));
+	}
+
+	@Test
+	public void macros() {
+
+		assertEquals(CronExpression.parse("0 * * * *"), CronExpression.parse("@hourly"));
+		assertEquals(CronExpression.parse("0 0 * * *"), CronExpression.parse("@daily"));
+		assertEquals(CronExpression.parse("0 0 * * 0"), CronExpression.parse("@weekly"));
+		assertEquals(CronExpression.parse("0 0 1 1 *"), CronExpression.parse("@yearly"));
+		assertEquals("@daily", CronExpression.parse("  @daily ").getExpression());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void invalidFieldCount() {
+
+		try {
+			CronExpression.parse("* * * *");
+		}
+		catch (IllegalArgumentException e) {
+			assertEquals("Expected cron expression with 5 or 6 fields, but got: '* * * *'", e.getMessage());
+			throw e;
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void invalidValue() {
+
+		try {
+			CronExpression.parse("60 * * * *");
+		}
+		catch (IllegalArgumentException e) {
+			assertEquals("Expected: 0 - 59, but was: 60 in cron field: '60'", e.getMessage());
+			throw e;
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void invalidName() {
+
+		CronExpression.parse("0 0 * * FOO");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void neverMatches() {
+
+		CronExpression.parse("0 0 30 2 *");
+	}
+}
@@ -2,7 +2,10 @@ package com.spikeify.cron.utils;
 
 import org.junit.Test;
 
+import java.time.zone.ZoneRules;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 
 public class DateTimeUtilsTest {
 
@@ -27,4 +30,28 @@ public class DateTimeUtilsTest {
 		assertEquals(13, DateTimeUtils.getTimezoneHour(0, -11));
 		assertEquals(23, DateTimeUtils.getTimezoneHour(0, -1));
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void zoneTimeTest() {
+
+		ZoneRules rules = DateTimeUtils.getZoneRules("Europe/Ljubljana");
+		assertSame(rules, DateTimeUtils.getZoneRules("Europe/Ljubljana"));
+
+		// summer time
+		assertEquals(2L * 60L * 60L * 1000L, DateTimeUtils.getOffset(1445670000000L, rules)); // 24.10.2015 07:00 UTC
+		assertEquals(1445677200000L, DateTimeUtils.toLocalTime(1445670000000L, rules));
+		assertEquals(1445670000000L, DateTimeUtils.toUtcTime(1445677200000L, rules));
+
+		// 29.3.2015 02:30 does not exist ... moved to 03:30 (01:30 UTC)
+		assertEquals(1427592600000L, DateTimeUtils.toUtcTime(1427596200000L, rules));
+
+		// 25.10.2015 02:30 is there twice ... first one is taken (00:30 UTC)
+		assertEquals(1445733000000L, DateTimeUtils.toUtcTime(1445740200000L, rules));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void unknownZoneTest() {
+
+		DateTimeUtils.getZoneRules("Europe/Atlantis");
+	}
+}
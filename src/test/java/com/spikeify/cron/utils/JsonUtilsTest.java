@@ -255,5 +255,56 @@ public class JsonUtilsTest {
 		}
 	}
 
+	@Test
+	public void readersAndWritersAreCached() {
+
+		assertSame(JsonUtils.getReader(Dummy.class), JsonUtils.getReader(Dummy.class));
+		assertSame(JsonUtils.getWriter(Dummy.class), JsonUtils.getWriter(Dummy.class));
+
+		// equal type references share the same reader
+		assertSame(JsonUtils.getReader(new TypeReference<ArrayList<Dummy>>() {}), JsonUtils.getReader(new TypeReference<ArrayList<Dummy>>() {}));
+		assertSame(JsonUtils.getWriter(new TypeReference<ArrayList<Dummy>>() {}), JsonUtils.getWriter(new TypeReference<ArrayList<Dummy>>() {}));
+	}
+
+	@Test
+	public void sameMapperOnAllThreads() throws InterruptedException {
+
+		ObjectMapper[] other = new ObjectMapper[1];
+		Thread thread = new Thread(() -> other[0] = JsonUtils.getObjectMapper());
+		thread.start();
+		thread.join();
+
+		assertSame(JsonUtils.getObjectMapper(), other[0]);
+
+		// cached and uncached conversions give the same result
+		Dummy test = new Dummy("1", 2);
+		assertEquals(JsonUtils.toJson(test, JsonUtils.getObjectMapper()), JsonUtils.write(test, JsonUtils.getWriter(Dummy.class)));
+		assertEquals(JsonUtils.toJson(test), JsonUtils.write(test, JsonUtils.getWriter(Dummy.class)));
+	}
+
+	@Test
+	public void readWrite() {
+
+		Dummy test = new Dummy("1", 2);
+		String json = JsonUtils.write(test, JsonUtils.getWriter(Dummy.class));
+		assertEquals("{\"a\":\"1\",\"b\":2,\"hidden\":0}", json);
+
+		Dummy value = JsonUtils.read(json, JsonUtils.getReader(Dummy.class));
+		assertEquals("1", value.a);
+		assertEquals(2, value.b);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void readFail() {
+
+		try {
+			JsonUtils.read("{}", null);
+		}
+		catch (IllegalArgumentException e) {
+			assertEquals("Missing object reader!", e.getMessage());
+			throw e;
+		}
+	}
+
 	class DummyTo {}
 }
\ No newline at end of file